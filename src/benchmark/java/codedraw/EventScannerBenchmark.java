@@ -0,0 +1,52 @@
+package codedraw;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.TimeUnit;
+
+/*
+	Measures pushing events into the EventScanner and reading them again,
+	once for single events and once for a burst of mouse moves like they occur while moving the mouse quickly.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventScannerBenchmark {
+	@Param({ "false", "true" })
+	public boolean coalescing;
+
+	private EventScanner eventScanner;
+	private MouseEvent mouseEvent;
+
+	@Setup
+	public void setup() {
+		eventScanner = new EventScanner();
+		eventScanner.setMouseMoveCoalescing(coalescing);
+		mouseEvent = new MouseEvent(new Canvas(), MouseEvent.MOUSE_MOVED, 0, 0, 10, 20, 0, false, MouseEvent.NOBUTTON);
+	}
+
+	@Benchmark
+	public Event pushAndPop() {
+		eventScanner.push(new MouseMoveEvent(mouseEvent));
+		return eventScanner.nextEvent();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(64)
+	public Event burstOfMouseMoves() {
+		for (int i = 0; i < 64; i++) {
+			eventScanner.push(new MouseMoveEvent(mouseEvent));
+		}
+
+		Event last = null;
+		while (eventScanner.hasEventNow()) {
+			last = eventScanner.nextEvent();
+		}
+		return last;
+	}
+}
@@ -0,0 +1,154 @@
+package codedraw;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+	Measures the drawing primitives of Image at several canvas sizes and DPI scales.
+	The DPI scale is set through the package private constructor, since it otherwise depends on the connected screens.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageBenchmark {
+	@Param({ "256", "1024", "2048" })
+	public int size;
+
+	@Param({ "1", "2" })
+	public int dpiScale;
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final Filter GAUSSIAN_BLUR = Filter.gaussianBlur(8);
+	private static final Filter BOX_BLUR = Filter.boxBlur(8);
+
+	private Image image;
+	private Image sprite;
+	private int counter;
+	private final double[] xs = new double[BATCH_SIZE];
+	private final double[] ys = new double[BATCH_SIZE];
+	private final double[] radii = new double[BATCH_SIZE];
+
+	@Setup
+	public void setup() {
+		image = new Image(size, size, dpiScale, dpiScale, Palette.WHITE);
+		sprite = new Image(64, 64, dpiScale, dpiScale, Palette.fromARGB(0x80FF8000));
+		counter = 0;
+
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			xs[i] = next(size);
+			ys[i] = next(size);
+			radii[i] = 1 + next(5);
+		}
+	}
+
+	@Benchmark
+	public void fillCircle() {
+		image.fillCircle(next(size), next(size), 20);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void fillCircleRepeated() {
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			image.fillCircle(xs[i], ys[i], radii[i]);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void fillCircles() {
+		image.fillCircles(xs, ys, radii);
+	}
+
+	@Benchmark
+	public void drawCircle() {
+		image.drawCircle(next(size), next(size), 20);
+	}
+
+	@Benchmark
+	public void drawLine() {
+		image.drawLine(next(size), next(size), next(size), next(size));
+	}
+
+	@Benchmark
+	public void drawImage() {
+		image.setBlendMode(BlendMode.NORMAL);
+		image.drawImage(next(size), next(size), sprite);
+	}
+
+	@Benchmark
+	public void drawImageAdd() {
+		image.setBlendMode(BlendMode.ADD);
+		image.drawImage(next(size), next(size), sprite);
+	}
+
+	@Benchmark
+	public void fillCircleAdd() {
+		image.setBlendMode(BlendMode.ADD);
+		image.fillCircle(next(size), next(size), 20);
+	}
+
+	@Benchmark
+	public void drawText() {
+		image.drawText(next(size), next(size), "Hello World!");
+	}
+
+	@Benchmark
+	public void setPixel() {
+		image.setPixel(next(size), next(size), Palette.RED);
+	}
+
+	@Benchmark
+	public void setPixelARGB() {
+		image.setPixel(next(size), next(size), 0xFFFF0000);
+	}
+
+	@Benchmark
+	public int getPixelARGB() {
+		return image.getPixelARGB(next(size), next(size));
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void setPixelEveryPixel() {
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				image.setPixel(x, y, 0xFF000000 | x ^ y);
+			}
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void forEachPixel() {
+		image.forEachPixel((x, y) -> 0xFF000000 | x ^ y);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void gaussianBlur() {
+		image.applyFilter(GAUSSIAN_BLUR);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void boxBlur() {
+		image.applyFilter(BOX_BLUR);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void clear() {
+		image.clear();
+	}
+
+	private int next(int bound) {
+		counter = counter * 1103515245 + 12345;
+		return (counter >>> 1) % bound;
+	}
+}
@@ -0,0 +1,71 @@
+package codedraw;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Matrix2DBenchmark {
+	private Matrix2D a;
+	private Matrix2D b;
+	private double x;
+	private double y;
+	private final double[] points = new double[2 * 4096];
+	private final double[] transformedPoints = new double[2 * 4096];
+	private final double[] xs = new double[4096];
+	private final double[] ys = new double[4096];
+	private final double[] transformedXs = new double[4096];
+	private final double[] transformedYs = new double[4096];
+
+	@Setup
+	public void setup() {
+		a = Matrix2D.IDENTITY.translate(100, 50).rotate(0.3).scale(2, 3);
+		b = Matrix2D.IDENTITY.shear(0.1, 0.2).rotateAt(300, 300, 1.2);
+		x = 123.4;
+		y = 567.8;
+
+		for (int i = 0; i < xs.length; i++) {
+			xs[i] = points[2 * i] = i;
+			ys[i] = points[2 * i + 1] = -i;
+		}
+	}
+
+	@Benchmark
+	public Matrix2D multiply() {
+		return a.multiply(b);
+	}
+
+	@Benchmark
+	public Point2D multiplyPoint() {
+		return a.multiply(x, y);
+	}
+
+	@Benchmark
+	public Matrix2D translateRotateScale() {
+		return a.translate(x, y).rotate(0.5).scale(1.5, 1.5);
+	}
+
+	@Benchmark
+	public Matrix2D inverse() {
+		return a.inverse();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(4096)
+	public double[] transformInterleaved() {
+		a.transform(points, 0, transformedPoints, 0, 4096);
+		return transformedPoints;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(4096)
+	public double[] transformSeparateArrays() {
+		a.transform(xs, ys, 0, transformedXs, transformedYs, 0, 4096);
+		return transformedYs;
+	}
+}
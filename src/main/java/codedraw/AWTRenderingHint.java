@@ -8,7 +8,10 @@ interface AWTRenderingHint {
 	Object value();
 
 	default void applyTo(Graphics2D graphics) {
-		graphics.setRenderingHint(key(), value());
+		// setting a hint can invalidate the rendering pipeline of the graphics object, even if the value stays the same
+		if (graphics.getRenderingHint(key()) != value()) {
+			graphics.setRenderingHint(key(), value());
+		}
 	}
 
 	enum AlphaInterpolation implements AWTRenderingHint {
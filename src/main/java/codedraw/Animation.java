@@ -8,6 +8,8 @@ package codedraw;
  * First, the event methods like {@link #onMouseMove(MouseMoveEvent)} are called.
  * Second, the {@link #simulate()} method is called.
  * Third, the {@link #draw(Image)} method is called.
+ * Frames are drawn at their own rate, which is why {@link #draw(Image, double)} receives an interpolation value
+ * telling how far the time has progressed between two simulations.
  */
 public interface Animation {
 	/**
@@ -19,6 +21,35 @@ public interface Animation {
 	 */
 	void draw(Image canvas);
 
+	/**
+	 * This method is called in regular intervals to draw onto the canvas.
+	 * Compared to {@link #draw(Image)} it also receives how far the time has progressed
+	 * between the last call to {@link #simulate()} and the next call to {@link #simulate()}.
+	 * Because frames and simulations run at their own rate, a frame usually falls somewhere between two simulations.
+	 * Blending the previous and the current state of the simulation by the interpolation value
+	 * makes movements appear smooth, even if there are fewer simulations than frames per second.
+	 * <pre>{@code
+	 * @Override
+	 * public void draw(Image canvas, double interpolation) {
+	 *     double x = previousX + (currentX - previousX) * interpolation;
+	 *     canvas.clear();
+	 *     canvas.fillCircle(x, 100, 10);
+	 * }
+	 *
+	 * @Override
+	 * public void draw(Image canvas) {
+	 *     draw(canvas, 1);
+	 * }
+	 * }</pre>
+	 * The default implementation ignores the interpolation and calls {@link #draw(Image)}.
+	 * @param canvas the canvas to draw on.
+	 * @param interpolation a value between 0 and 1. 0 means the last simulation has just happened,
+	 *                      values close to 1 mean the next simulation is about to happen.
+	 */
+	default void draw(Image canvas, double interpolation) {
+		draw(canvas);
+	}
+
 	/**
 	 * This method is executed independently of the {@link #draw(Image)} method.
 	 * While the {@link #draw(Image)} might not get executed when the user's computer is under load,
@@ -104,6 +135,14 @@ public interface Animation {
 				}
 			}
 
+			@Override
+			public void draw(Image canvas, double interpolation) {
+				for (Animation a : animations) {
+					canvas.resetProperties();
+					a.draw(canvas, interpolation);
+				}
+			}
+
 			@Override
 			public void simulate() {
 				for (Animation a : animations) {
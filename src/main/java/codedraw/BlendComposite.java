@@ -0,0 +1,196 @@
+package codedraw;
+
+import java.awt.*;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+/**
+ * A {@link Composite} that mixes the source and destination colors with one of the {@link BlendMode}s.
+ * The blended color is placed over the destination like {@link AlphaComposite#SrcOver},
+ * where the destination is transparent the source color is drawn unchanged.
+ * Images that share the same DPI scaling bypass Java2D and are blended directly with {@link #blendRow}.
+ */
+class BlendComposite implements Composite {
+	private static final BlendComposite[] composites = new BlendComposite[BlendMode.values().length];
+	private static final ColorModel ARGB = ColorModel.getRGBdefault();
+
+	static {
+		for (BlendMode mode : BlendMode.values()) {
+			composites[mode.ordinal()] = new BlendComposite(mode);
+		}
+	}
+
+	public static BlendComposite get(BlendMode mode) {
+		return composites[mode.ordinal()];
+	}
+
+	private BlendComposite(BlendMode mode) {
+		this.mode = mode;
+
+		for (int sc = 0; sc < 256; sc++) {
+			for (int dc = 0; dc < 256; dc++) {
+				table[(sc << 8) | dc] = (byte)blendChannel(mode, sc, dc);
+			}
+		}
+	}
+
+	private final BlendMode mode;
+	// the blended value of every pair of source and destination values, so the blend mode is not evaluated per pixel
+	private final byte[] table = new byte[256 * 256];
+
+	@Override
+	public CompositeContext createContext(ColorModel srcColorModel, ColorModel dstColorModel, RenderingHints hints) {
+		return new Context(this, srcColorModel, dstColorModel);
+	}
+
+	/*
+		Blends the source pixels over the destination pixels. Both arrays contain ARGB colors without premultiplied alpha.
+	*/
+	public void blendRow(int[] src, int srcOffset, int[] dst, int dstOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int s = src[srcOffset + i];
+			int sa = s >>> 24;
+			if (sa == 0) continue;
+
+			int d = dst[dstOffset + i];
+			int da = d >>> 24;
+
+			int sr = (s >> 16) & 0xFF, sg = (s >> 8) & 0xFF, sb = s & 0xFF;
+			int dr = (d >> 16) & 0xFF, dg = (d >> 8) & 0xFF, db = d & 0xFF;
+			int br = table[(sr << 8) | dr] & 0xFF;
+			int bg = table[(sg << 8) | dg] & 0xFF;
+			int bb = table[(sb << 8) | db] & 0xFF;
+
+			if (da == 0xFF) {
+				if (sa == 0xFF) {
+					dst[dstOffset + i] = 0xFF000000 | (br << 16) | (bg << 8) | bb;
+				}
+				else {
+					int ia = 255 - sa;
+					dst[dstOffset + i] = 0xFF000000
+						| (div255(sa * br + ia * dr) << 16)
+						| (div255(sa * bg + ia * dg) << 8)
+						| div255(sa * bb + ia * db);
+				}
+			}
+			else {
+				dst[dstOffset + i] = blendTranslucent(sa, da, sr, sg, sb, dr, dg, db, br, bg, bb);
+			}
+		}
+	}
+
+	/*
+		Follows the separable blend modes of the W3C compositing specification:
+		where the destination is opaque the source color is replaced by the blended color,
+		where it is transparent the source color stays the same, afterwards the result is drawn with source over.
+	*/
+	private static int blendTranslucent(int sa, int da, int sr, int sg, int sb, int dr, int dg, int db, int br, int bg, int bb) {
+		int weight = sa * 255 + (255 - sa) * da;
+		if (weight == 0) return 0;
+
+		int a = div255(weight);
+		int r = mix(sa, da, sr, dr, br, weight);
+		int g = mix(sa, da, sg, dg, bg, weight);
+		int b = mix(sa, da, sb, db, bb, weight);
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+
+	private static int mix(int sa, int da, int sc, int dc, int blended, int weight) {
+		int source = div255((255 - da) * sc + da * blended);
+		return (sa * 255 * source + (255 - sa) * da * dc + weight / 2) / weight;
+	}
+
+	private static int blendChannel(BlendMode mode, int sc, int dc) {
+		switch (mode) {
+			case ADD: return Math.min(255, sc + dc);
+			case MULTIPLY: return div255(sc * dc);
+			case SCREEN: return 255 - div255((255 - sc) * (255 - dc));
+			case MAX: return Math.max(sc, dc);
+			default: return sc;
+		}
+	}
+
+	/*
+		Divides by 255 and rounds to the nearest integer, exact for all values from 0 to 255 * 255.
+	*/
+	private static int div255(int value) {
+		value += 128;
+		return (value + (value >> 8)) >> 8;
+	}
+
+	private static class Context implements CompositeContext {
+		public Context(BlendComposite composite, ColorModel srcColorModel, ColorModel dstColorModel) {
+			this.composite = composite;
+			this.srcColorModel = srcColorModel;
+			this.dstColorModel = dstColorModel;
+		}
+
+		private final BlendComposite composite;
+		private final ColorModel srcColorModel;
+		private final ColorModel dstColorModel;
+		private int[] srcRow = new int[0];
+		private int[] dstRow = new int[0];
+
+		@Override
+		public void compose(Raster src, Raster dstIn, WritableRaster dstOut) {
+			int width = Math.min(src.getWidth(), dstIn.getWidth());
+			int height = Math.min(src.getHeight(), dstIn.getHeight());
+
+			if (srcRow.length < width) {
+				srcRow = new int[width];
+				dstRow = new int[width];
+			}
+
+			for (int y = 0; y < height; y++) {
+				readRow(src, srcColorModel, y, width, srcRow);
+				readRow(dstIn, dstColorModel, y, width, dstRow);
+				composite.blendRow(srcRow, 0, dstRow, 0, width);
+				writeRow(dstOut, dstColorModel, y, width, dstRow);
+			}
+		}
+
+		/*
+			CodeDraw images and the colors painted by Java2D are usually int ARGB already, other formats are converted pixel by pixel.
+		*/
+		private static void readRow(Raster raster, ColorModel colorModel, int y, int width, int[] row) {
+			int minX = raster.getMinX();
+			int minY = raster.getMinY() + y;
+
+			if (isARGB(raster, colorModel)) {
+				raster.getDataElements(minX, minY, width, 1, row);
+				return;
+			}
+
+			Object pixel = null;
+			for (int x = 0; x < width; x++) {
+				pixel = raster.getDataElements(minX + x, minY, pixel);
+				row[x] = colorModel.getRGB(pixel);
+			}
+		}
+
+		private static void writeRow(WritableRaster raster, ColorModel colorModel, int y, int width, int[] row) {
+			int minX = raster.getMinX();
+			int minY = raster.getMinY() + y;
+
+			if (isARGB(raster, colorModel)) {
+				raster.setDataElements(minX, minY, width, 1, row);
+				return;
+			}
+
+			Object pixel = null;
+			for (int x = 0; x < width; x++) {
+				pixel = colorModel.getDataElements(row[x], pixel);
+				raster.setDataElements(minX + x, minY, pixel);
+			}
+		}
+
+		private static boolean isARGB(Raster raster, ColorModel colorModel) {
+			return raster.getTransferType() == DataBuffer.TYPE_INT && raster.getNumDataElements() == 1 && ARGB.equals(colorModel);
+		}
+
+		@Override
+		public void dispose() { }
+	}
+}
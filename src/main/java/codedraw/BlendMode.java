@@ -0,0 +1,38 @@
+package codedraw;
+
+/**
+ * BlendMode defines how the colors of drawn shapes, texts and images are combined with the colors already on the image.
+ * See {@link Image#setBlendMode(BlendMode)}.
+ * Except for {@link #NORMAL} the blend modes mix each of the red, green and blue values separately.
+ * The alpha value of the drawn color defines how strongly the result of the blend mode replaces the existing color.
+ * The explanations below are for fully opaque colors where 0 is the lowest and 255 the highest value.
+ */
+public enum BlendMode {
+	/**
+	 * The drawn color is placed on top of the existing color.
+	 * Whether transparent colors are mixed or replace the existing color depends on {@link Image#setDrawOver(boolean)}.
+	 */
+	NORMAL,
+	/**
+	 * The values of both colors are added, values that are larger than 255 are cut off.
+	 * Colors get brighter wherever they overlap, which is often used for lights, glows and particles.
+	 */
+	ADD,
+	/**
+	 * The values of both colors are multiplied and divided by 255.
+	 * The result is always darker than both colors, e.g. to draw shadows or tint an image.
+	 * Drawing white does not change the existing color.
+	 */
+	MULTIPLY,
+	/**
+	 * The inverted values of both colors are multiplied and the result is inverted again.
+	 * The result is always brighter than both colors, but unlike {@link #ADD} it never gets fully white.
+	 * Drawing black does not change the existing color.
+	 */
+	SCREEN,
+	/**
+	 * The larger value of both colors is kept.
+	 * Overlapping colors do not get brighter than the brightest of them.
+	 */
+	MAX
+}
@@ -66,14 +66,29 @@ public class BorderlessWindow extends Image implements AutoCloseable {
 	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
 	 */
 	public static void run(Animation animation, int width, int height, int framesPerSecond, int simulationsPerSecond) {
+		run(animation, width, height, framesPerSecond, simulationsPerSecond, FramePacing.SLEEP);
+	}
+
+	/**
+	 * Runs the {@link Animation} interface using a borderless window.
+	 * This function returns when the borderless window is closed by the user.
+	 * @param animation any class implementing the animation interface.
+	 * @param width the width of the borderless window.
+	 * @param height the height of the borderless window.
+	 * @param framesPerSecond the rate at which the {@link Animation#draw(Image)} method should be called.
+	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
+	 * @param framePacing the way the animation waits for the next frame or simulation. See {@link FramePacing}.
+	 */
+	public static void run(Animation animation, int width, int height, int framesPerSecond, int simulationsPerSecond, FramePacing framePacing) {
 		if (animation == null) throw createParameterNullException("animation");
 		if (width < 1) throw createParameterMustBeGreaterThanZeroException("width");
 		if (height < 1) throw createParameterMustBeGreaterThanZeroException("height");
 		if (framesPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("framesPerSecond");
 		if (simulationsPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("simulationsPerSecond");
+		if (framePacing == null) throw createParameterNullException("framePacing");
 
 		BorderlessWindow bw = new BorderlessWindow(width, height);
-		CodeDrawGUI.run(animation, bw.gui, bw, framesPerSecond, simulationsPerSecond);
+		CodeDrawGUI.run(animation, bw.gui, bw, framesPerSecond, simulationsPerSecond, framePacing);
 		bw.close();
 	}
 
@@ -1,22 +1,54 @@
-
 package codedraw;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class CanvasPanel extends JPanel implements AutoCloseable {
 	public CanvasPanel(int width, int height) {
-		buffer = Image.fromDPIAwareSize(width, height);
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = Image.fromDPIAwareSize(width, height);
+			outdatedRegions[i] = buffers[i].getRasterBounds();
+		}
 
 		setLayout(null);
 		setPreferredSize(new Dimension(Math.max(width, 150), height));
 	}
 
-	private final Image buffer;
+	/*
+		The panel is triple buffered. The thread calling show() writes into the back buffer,
+		the event dispatch thread paints the front buffer and the third buffer holds the most recently finished frame.
+		Both threads swap their own buffer with the finished buffer in a single atomic operation,
+		therefore neither thread ever waits for the other while copying or painting.
+		The index of the finished buffer is stored together with a flag that tells whether the frame is new.
+	*/
+	private static final int NEW_FRAME = 4;
+	private static final int INDEX_MASK = 3;
+
+	private final Image[] buffers = new Image[3];
+	private final AtomicInteger finished = new AtomicInteger(1);
+	private int back = 0; // only accessed by the thread calling show()
+	private int front = 2; // only accessed by the event dispatch thread
+
+	/*
+		For each buffer the region that differs from the most recently shown image.
+		Only the outdated region of the back buffer has to be copied on each call to show().
+		Only accessed by the thread calling show().
+	*/
+	private final Rectangle[] outdatedRegions = new Rectangle[3];
+	private Image lastShownImage = null;
+
+	/*
+		The front buffer is drawn through a VolatileImage when the platform accelerates them.
+		In full screen mode a page flipping BufferStrategy can be used instead of painting through Swing,
+		then the thread calling show() presents each frame directly and the event dispatch thread does not paint at all.
+	*/
+	private final VolatileImageCache paintCache = new VolatileImageCache();
+	private final VolatileImageCache flipCache = new VolatileImageCache();
+	private volatile BufferStrategy bufferStrategy = null;
 
-	private final Semaphore copyToClipboardLock = new Semaphore(1);
-	private final Semaphore renderLock = new Semaphore(1);
 	private final CloseableSemaphore waitForDisplay = new CloseableSemaphore(1);
 
 	private boolean isInstantDraw = false;
@@ -33,16 +65,32 @@ class CanvasPanel extends JPanel implements AutoCloseable {
 		waitForDisplay.acquire();
 		waitForDisplay.emptySemaphore();
 
-		copyToClipboardLock.acquire();
-		renderLock.acquire();
+		Rectangle changed = image.takeDirtyRegion();
+		if (image != lastShownImage) {
+			changed = image.getRasterBounds();
+			lastShownImage = image;
+		}
+
+		for (Rectangle outdated : outdatedRegions) {
+			if (!changed.isEmpty()) outdated.add(changed);
+		}
+
+		Rectangle outdated = outdatedRegions[back];
+		if (!outdated.isEmpty()) {
+			image.copyPixelsTo(buffers[back], outdated);
+			outdated.setBounds(0, 0, -1, -1);
+		}
 
-		buffer.clear();
-		buffer.drawImage(0, 0, image);
+		if (bufferStrategy != null) {
+			present(buffers[back], changed);
+		}
 
-		renderLock.release();
-		copyToClipboardLock.release();
+		back = finished.getAndSet(back | NEW_FRAME) & INDEX_MASK;
 
-		repaint(10);
+		if (bufferStrategy == null && !changed.isEmpty()) {
+			Rectangle r = image.toImageBounds(changed);
+			repaint(10, r.x, r.y, r.width, r.height);
+		}
 
 		if (isInstantDraw) {
 			waitForDisplay.acquire();
@@ -50,26 +98,97 @@ class CanvasPanel extends JPanel implements AutoCloseable {
 		}
 	}
 
+	/*
+		Tries to present frames by page flipping on the full screen window.
+		Page flipping is only used if the platform supports it, otherwise frames are still painted through Swing.
+		Must be called after the window has been made visible.
+	*/
+	public void usePageFlipping(Window fullScreenWindow) {
+		try {
+			fullScreenWindow.createBufferStrategy(2, new BufferCapabilities(
+					new ImageCapabilities(true),
+					new ImageCapabilities(true),
+					BufferCapabilities.FlipContents.UNDEFINED
+			));
+		}
+		catch (AWTException | IllegalArgumentException | IllegalStateException e) {
+			return;
+		}
+
+		BufferStrategy strategy = fullScreenWindow.getBufferStrategy();
+		if (strategy == null || !strategy.getCapabilities().isPageFlipping()) {
+			if (strategy != null) strategy.dispose();
+			return;
+		}
+
+		fullScreenWindow.setIgnoreRepaint(true);
+		setIgnoreRepaint(true);
+		bufferStrategy = strategy;
+	}
+
+	/*
+		The contents of a flipped page are undefined, therefore the whole frame is drawn every time.
+		Only the changed region has to be uploaded to the VolatileImage.
+	*/
+	private void present(Image frame, Rectangle changed) {
+		BufferStrategy strategy = bufferStrategy;
+
+		do {
+			do {
+				Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+				if (!flipCache.drawTo(g, getGraphicsConfiguration(), frame, changed)) {
+					frame.copyTo(g, Interpolation.BICUBIC);
+				}
+				g.dispose();
+				changed = frame.getRasterBounds();
+			} while (strategy.contentsRestored());
+
+			strategy.show();
+		} while (strategy.contentsLost());
+
+		Toolkit.getDefaultToolkit().sync();
+		waitForDisplay.release();
+	}
+
 	public void copyCanvasToClipboard() {
-		copyToClipboardLock.acquire();
 		Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-		clipboard.setContents(new TransferableImage(buffer), null);
-		copyToClipboardLock.release();
+		clipboard.setContents(new TransferableImage(latestFrame()), null);
 	}
 
 	@Override
 	public void close() {
 		waitForDisplay.close();
+
+		BufferStrategy strategy = bufferStrategy;
+		if (strategy != null) {
+			bufferStrategy = null;
+			strategy.dispose();
+		}
 	}
 
 	@Override
 	protected void paintComponent(Graphics componentGraphics) {
+		if (bufferStrategy != null) return;
+
 		super.paintComponent(componentGraphics);
 
-		renderLock.acquire();
-		buffer.copyTo(componentGraphics, Interpolation.BICUBIC);
-		renderLock.release();
+		Image frame = latestFrame();
+		Rectangle clip = componentGraphics.getClipBounds();
+		Rectangle outdated = clip == null ? frame.getRasterBounds() : frame.toRasterBounds(clip);
+
+		if (!(componentGraphics instanceof Graphics2D) || !paintCache.drawTo((Graphics2D) componentGraphics, getGraphicsConfiguration(), frame, outdated)) {
+			frame.copyTo(componentGraphics, Interpolation.BICUBIC);
+		}
 
 		waitForDisplay.release();
 	}
-}
\ No newline at end of file
+
+	// must only be called from the event dispatch thread
+	private Image latestFrame() {
+		if ((finished.get() & NEW_FRAME) != 0) {
+			front = finished.getAndSet(front) & INDEX_MASK;
+		}
+
+		return buffers[front];
+	}
+}
@@ -106,14 +106,31 @@ public class CodeDraw extends Image implements AutoCloseable {
 	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
 	 */
 	public static void run(Animation animation, int width, int height, int framesPerSecond, int simulationsPerSecond) {
+		run(animation, width, height, framesPerSecond, simulationsPerSecond, FramePacing.SLEEP);
+	}
+
+	/**
+	 * Runs the {@link Animation} interface using a CodeDraw window.
+	 * This function returns when the CodeDraw window is closed by the user.
+	 * The animation will appear with a size of 600 by 600 pixel
+	 * running at 60 frames per second and 60 simulations per second.
+	 * @param animation any class implementing the animation interface.
+	 * @param width the width of the CodeDraw window.
+	 * @param height the height of the CodeDraw window.
+	 * @param framesPerSecond the rate at which the {@link Animation#draw(Image)} method should be called.
+	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
+	 * @param framePacing the way the animation waits for the next frame or simulation. See {@link FramePacing}.
+	 */
+	public static void run(Animation animation, int width, int height, int framesPerSecond, int simulationsPerSecond, FramePacing framePacing) {
 		if (animation == null) throw createParameterNullException("animation");
 		if (width < 1) throw createParameterMustBeGreaterThanZeroException("width");
 		if (height < 1) throw createParameterMustBeGreaterThanZeroException("height");
 		if (framesPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("framesPerSecond");
 		if (simulationsPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("simulationsPerSecond");
+		if (framePacing == null) throw createParameterNullException("framePacing");
 
 		CodeDraw cd = new CodeDraw(width, height);
-		CodeDrawGUI.run(animation, cd.gui, cd, framesPerSecond, simulationsPerSecond);
+		CodeDrawGUI.run(animation, cd.gui, cd, framesPerSecond, simulationsPerSecond, framePacing);
 		cd.close();
 	}
 
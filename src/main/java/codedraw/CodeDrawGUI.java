@@ -39,6 +39,7 @@ class CodeDrawGUI implements AutoCloseable {
 		screen.attachGUI(frame);
 
 		gui.finishConstructor();
+		gui.panel.usePageFlipping(frame);
 		return gui;
 	}
 
@@ -211,10 +212,10 @@ class CodeDrawGUI implements AutoCloseable {
 		);
 	}
 
-	public static void run(Animation animation, CodeDrawGUI gui, Image image, int framesPerSecond, int simulationsPerSecond) {
+	public static void run(Animation animation, CodeDrawGUI gui, Image image, int framesPerSecond, int simulationsPerSecond, FramePacing framePacing) {
 		EventScanner es = gui.getEventScanner();
-		Scheduler frames = new Scheduler(1000 / framesPerSecond, true);
-		Scheduler simulations = new Scheduler( 1000 / simulationsPerSecond, false);
+		Scheduler frames = new Scheduler(framesPerSecond, true);
+		Scheduler simulations = new Scheduler(simulationsPerSecond, false);
 
 		while (!gui.isClosed()) {
 			while (simulations.shouldDoTask()) {
@@ -223,16 +224,16 @@ class CodeDrawGUI implements AutoCloseable {
 			}
 
 			if (frames.shouldDoTask()) {
-				animation.draw(image);
+				animation.draw(image, simulations.progressToNextTask());
 				gui.show(image);
 			}
 
-			long sleepTime = Math.min(simulations.timeUntilNextTask(), frames.timeUntilNextTask());
-			sleepIfPositive(sleepTime);
+			long sleepTime = Math.min(simulations.nanosecondsUntilNextTask(), frames.nanosecondsUntilNextTask());
+			framePacing.waitNanoseconds(sleepTime);
 		}
 	}
 
-	private static void dispatchEvents(EventScanner es, Animation animation) {
+	static void dispatchEvents(EventScanner es, Animation animation) {
 		while (es.hasEventNow()) {
 			Object event = es.nextEvent();
 
@@ -0,0 +1,27 @@
+package codedraw;
+
+import java.awt.*;
+
+/**
+ * Maps packed ARGB integers to {@link Color} objects without allocating a new Color every time.
+ * The cache is direct mapped, so a color can be evicted by any other color that hashes to the same slot.
+ * Races between threads are harmless, because a cached color is only returned if its value matches.
+ */
+class ColorCache {
+	private ColorCache() { }
+
+	private static final int SIZE = 256;
+	private static final Color[] cache = new Color[SIZE];
+
+	public static Color get(int argb) {
+		int index = (argb * 0x9E3779B9) >>> 24;
+		Color color = cache[index];
+
+		if (color == null || color.getRGB() != argb) {
+			color = new Color(argb, true);
+			cache[index] = color;
+		}
+
+		return color;
+	}
+}
@@ -1,46 +1,120 @@
 package codedraw;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free queue for any number of producer threads and exactly one consumer thread.
+ * Elements are stored in fixed size array segments.
+ * When a segment is full the producers link a new segment to it, so the queue can grow without bounds.
+ * The consumer never allocates and only blocks in {@link #pop()} and {@link #peek()} while the queue is empty.
+ */
 class ConcurrentQueue<T> {
-	public ConcurrentQueue(int initialCapacity) {
-		if (initialCapacity <= 0) throw new RuntimeException("Initial capacity must be larger than zero.");
+	public ConcurrentQueue(int segmentCapacity) {
+		if (segmentCapacity <= 0) throw new RuntimeException("Segment capacity must be larger than zero.");
 
-		queue = new Queue<>(initialCapacity);
+		this.segmentCapacity = segmentCapacity;
+		Segment<T> first = new Segment<>(segmentCapacity);
+		tail = new AtomicReference<>(first);
+		head = first;
 	}
 
-	private final Queue<T> queue;
-	private final Semaphore queueLock = new Semaphore(1);
-	private final Semaphore queueCount = new Semaphore(0);
+	private final int segmentCapacity;
+	private final AtomicReference<Segment<T>> tail;
+	private volatile Thread waitingConsumer;
+
+	// only accessed by the consumer thread
+	private Segment<T> head;
+	private int headIndex = 0;
 
 	public void push(T element) {
-		queueLock.acquire();
-		queue.push(element);
-		queueLock.release();
+		if (element == null) throw new RuntimeException("Cannot push null into a concurrent queue.");
+
+		while (true) {
+			Segment<T> segment = tail.get();
+			int index = segment.claimed.getAndIncrement();
+
+			if (index < segmentCapacity) {
+				segment.elements.set(index, element);
+				break;
+			}
 
-		queueCount.release();
+			Segment<T> next = segment.next.get();
+			if (next == null) {
+				Segment<T> newSegment = new Segment<>(segmentCapacity);
+				next = segment.next.compareAndSet(null, newSegment) ? newSegment : segment.next.get();
+			}
+			tail.compareAndSet(segment, next);
+		}
+
+		Thread consumer = waitingConsumer;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
 	}
 
 	public boolean isEmpty() {
-		return !queueCount.canAcquire();
+		return peekNow() == null;
 	}
 
 	public T pop() {
-		queueCount.acquire();
-
-		queueLock.acquire();
-		T result = queue.pop();
-		queueLock.release();
+		T result = waitForElement();
 
+		head.elements.lazySet(headIndex, null); // explicitly set removed elements to null, easier to debug and maybe the garbage collector has an easier time cleaning up
+		headIndex++;
 		return result;
 	}
 
-	public T peek(){
-		queueCount.acquire();
+	public T peek() {
+		return waitForElement();
+	}
 
-		queueLock.acquire();
-		T result = queue.peek();
-		queueLock.release();
+	private T waitForElement() {
+		T element = peekNow();
+		if (element != null) return element;
 
-		queueCount.release();
-		return result;
+		waitingConsumer = Thread.currentThread();
+		try {
+			// waitingConsumer must be set before checking again, otherwise a push in between would not wake this thread
+			while ((element = peekNow()) == null) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					throw new RuntimeException(new InterruptedException());
+				}
+			}
+		}
+		finally {
+			waitingConsumer = null;
+		}
+
+		return element;
+	}
+
+	/*
+		An element that has been claimed by a producer but not yet written reads as null.
+		The queue then appears empty until the producer finishes, which keeps the order of all elements intact.
+	*/
+	private T peekNow() {
+		if (headIndex == segmentCapacity) {
+			Segment<T> next = head.next.get();
+			if (next == null) return null;
+
+			head = next;
+			headIndex = 0;
+		}
+
+		return head.elements.get(headIndex);
+	}
+
+	private static class Segment<T> {
+		public Segment(int capacity) {
+			elements = new AtomicReferenceArray<>(capacity);
+		}
+
+		public final AtomicReferenceArray<T> elements;
+		public final AtomicInteger claimed = new AtomicInteger(0);
+		public final AtomicReference<Segment<T>> next = new AtomicReference<>(null);
 	}
 }
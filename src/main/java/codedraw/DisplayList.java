@@ -0,0 +1,515 @@
+package codedraw;
+
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A DisplayList is a recording of draw calls that can be drawn again onto any {@link Image}.
+ * Drawing a display list is faster than repeating the draw calls, because the parameters have already been validated
+ * and all shapes have already been created. This is useful for backgrounds and other parts of a scene that do not change.
+ * A display list is created with {@link Image#startRecording()} and {@link Image#stopRecording()}
+ * and drawn with {@link Image#drawDisplayList(DisplayList)}.
+ * <pre>{@code
+ * cd.startRecording();
+ * cd.fillRectangle(0, 0, 600, 400);
+ * cd.setColor(Palette.GREEN);
+ * cd.fillCircle(300, 200, 100);
+ * DisplayList background = cd.stopRecording();
+ *
+ * while (!cd.isClosed()) {
+ *     cd.drawDisplayList(background);
+ *     // draw everything that changes
+ *     cd.show(16);
+ * }
+ * }</pre>
+ * The color, line width, corners, anti-aliasing, draw over, blend mode, transformation, text format and text renderer
+ * are recorded with each draw call.
+ * All shapes, texts and images are recorded. Pixel operations such as {@link Image#setPixel(int, int, int)},
+ * {@link Image#editPixels(java.util.function.Consumer)}, {@link Image#mapPixels(PixelMapper)}, {@link Image#applyFilter(Filter)}
+ * and {@link Image#clear()} are not recorded.
+ * Once created a display list cannot be changed.
+ */
+public class DisplayList {
+	DisplayList(Command[] commands) {
+		this.commands = commands;
+	}
+
+	private final Command[] commands;
+	private volatile boolean isCached = false;
+	private volatile boolean isParallel = false;
+	private Layer layer = null;
+
+	private static final int TILE_SIZE = 256;
+	// draw calls that cannot be drawn by a single tile
+	private static final int ANY_TILE = -1;
+
+	/**
+	 * The number of recorded draw calls.
+	 * @return the number of draw calls.
+	 */
+	public int size() {
+		int size = 0;
+		for (Command command : commands) {
+			if (!(command instanceof State)) size++;
+		}
+		return size;
+	}
+
+	/**
+	 * Whether this display list is kept as pixels after it has been drawn.
+	 * @return whether caching is on or off.
+	 */
+	public boolean isCached() {
+		return isCached;
+	}
+
+	/**
+	 * When caching is turned on this display list keeps the pixels it has drawn the first time.
+	 * As long as it is drawn onto images of the same size with the same transformation these pixels are copied
+	 * instead of drawing all recorded shapes again.
+	 * The cached pixels are drawn over the existing pixels, therefore shapes that were recorded with draw over turned off
+	 * do not replace the pixels beneath the display list, and transparent shapes that overlap blend slightly differently.
+	 * For the same reason shapes recorded with a {@link BlendMode} other than {@link BlendMode#NORMAL}
+	 * are only blended with each other and not with the pixels beneath the display list.
+	 * The cache needs as much memory as the image the display list is drawn onto.
+	 * @param isCached whether caching is on or off.
+	 */
+	public void setCached(boolean isCached) {
+		this.isCached = isCached;
+		if (!isCached) {
+			synchronized (this) {
+				layer = null;
+			}
+		}
+	}
+
+	/**
+	 * Whether this display list is drawn by multiple threads at once.
+	 * @return whether parallel drawing is on or off.
+	 */
+	public boolean isParallel() {
+		return isParallel;
+	}
+
+	/**
+	 * When parallel drawing is turned on the image is split into tiles and each tile is drawn by a different thread.
+	 * Each thread draws the recorded shapes that lie completely inside of its tile,
+	 * shapes that cross the border of a tile are drawn by a single thread in between.
+	 * The result is exactly the same as when drawing on a single thread.
+	 * Large images with many small shapes are drawn much faster this way.
+	 * Small images and display lists with only a few shapes are not worth splitting up.
+	 * The threads are taken from {@link ForkJoinPool#commonPool()}.
+	 * @param isParallel whether parallel drawing is on or off.
+	 */
+	public void setParallel(boolean isParallel) {
+		this.isParallel = isParallel;
+	}
+
+	/*
+		While the target is recording, the commands are replayed so that they are recorded as well.
+	*/
+	void drawTo(Image target, Matrix2D transformation) {
+		if (isCached && !target.isRecording()) {
+			Layer cached = getLayer(target, transformation);
+			target.drawLayer(cached.image, cached.region);
+		}
+		else {
+			replay(target, transformation);
+		}
+	}
+
+	private synchronized Layer getLayer(Image target, Matrix2D transformation) {
+		if (layer == null || !layer.transformation.equals(transformation) || !target.isCompatibleLayer(layer.image)) {
+			Image image = target.createLayer();
+			replay(image, transformation);
+			layer = new Layer(image, image.takeDirtyRegion(), transformation);
+		}
+		return layer;
+	}
+
+	/*
+		The properties of the target are changed by the recorded state commands and restored afterwards.
+	*/
+	private void replay(Image target, Matrix2D transformation) {
+		int color = target.getColorARGB();
+		double lineWidth = target.getLineWidth();
+		Corner corner = target.getCorner();
+		double cornerRadius = target.getCornerRadius();
+		boolean isAntiAliased = target.isAntiAliased();
+		boolean drawOver = target.drawOver();
+		BlendMode blendMode = target.getBlendMode();
+		TextFormat textFormat = target.getTextFormat();
+		TextRenderer textRenderer = target.getTextRenderer();
+		Matrix2D targetTransformation = target.getTransformation();
+		Rectangle raster = target.getRasterBounds();
+
+		try {
+			if (isParallel && !target.isRecording() && ForkJoinPool.getCommonPoolParallelism() > 1 && (raster.width > TILE_SIZE || raster.height > TILE_SIZE)) {
+				replayInParallel(target, transformation, raster);
+			}
+			else {
+				for (Command command : commands) {
+					command.replay(target, transformation);
+				}
+			}
+		}
+		finally {
+			target.setColorARGB(color);
+			target.setLineWidth(lineWidth);
+			target.setCorner(corner);
+			target.setCornerRadius(cornerRadius);
+			target.setAntiAliased(isAntiAliased);
+			target.setDrawOver(drawOver);
+			target.setBlendMode(blendMode);
+			target.setTextFormat(textFormat);
+			target.setTextRenderer(textRenderer);
+			target.setTransformation(targetTransformation);
+		}
+	}
+
+	/*
+		Each tile has its own graphics object that is clipped to the tile and shares the pixels of the target.
+		Java2D clips curves and strokes before rasterizing them, which changes the anti-aliased pixels next to the clip.
+		Therefore only draw calls that lie completely inside of a single tile are drawn by the tiles,
+		every other draw call is drawn onto the target once all draw calls before it are done.
+		This way every pixel is drawn exactly the same way as when the display list is drawn on a single thread.
+	*/
+	private void replayInParallel(Image target, Matrix2D transformation, Rectangle raster) {
+		ArrayList<Rectangle> tiles = new ArrayList<>();
+		for (int y = raster.y; y < raster.y + raster.height; y += TILE_SIZE) {
+			for (int x = raster.x; x < raster.x + raster.width; x += TILE_SIZE) {
+				tiles.add(new Rectangle(x, y, TILE_SIZE, TILE_SIZE).intersection(raster));
+			}
+		}
+
+		int[] commandTiles = assignTiles(target, transformation, raster, tiles);
+		Image[] tileImages = new Image[tiles.size()];
+		for (int i = 0; i < tileImages.length; i++) {
+			tileImages[i] = target.createTile(tiles.get(i));
+		}
+
+		try {
+			int start = 0;
+			int startState = -1;
+			int lastState = -1;
+			boolean hasTileCommands = false;
+
+			for (int i = 0; i < commands.length; i++) {
+				if (commands[i] instanceof State) {
+					lastState = i;
+				}
+				else if (commandTiles[i] != ANY_TILE) {
+					hasTileCommands = true;
+				}
+				else {
+					if (hasTileCommands) {
+						replayTiles(tileImages, transformation, commandTiles, startState, start, i);
+						hasTileCommands = false;
+					}
+					if (lastState >= 0) {
+						commands[lastState].replay(target, transformation);
+					}
+					commands[i].replay(target, transformation);
+					start = i + 1;
+					startState = lastState;
+				}
+			}
+
+			if (hasTileCommands) {
+				replayTiles(tileImages, transformation, commandTiles, startState, start, commands.length);
+			}
+		}
+		finally {
+			for (Image tileImage : tileImages) {
+				target.mergeTile(tileImage);
+			}
+		}
+	}
+
+	/*
+		Replays the commands from start to end on all tiles at once. Each tile replays the state that was set before start
+		and every state command in between, but only the draw calls that are inside of it.
+	*/
+	private void replayTiles(Image[] tileImages, Matrix2D transformation, int[] commandTiles, int startState, int start, int end) {
+		ArrayList<Callable<Void>> tasks = new ArrayList<>();
+
+		for (int t = 0; t < tileImages.length; t++) {
+			int tile = t;
+			tasks.add(() -> {
+				if (startState >= 0) {
+					((State) commands[startState]).replayOnTile(tileImages[tile], transformation);
+				}
+				for (int i = start; i < end; i++) {
+					if (commands[i] instanceof State) {
+						((State) commands[i]).replayOnTile(tileImages[tile], transformation);
+					}
+					else if (commandTiles[i] == tile) {
+						commands[i].replay(tileImages[tile], transformation);
+					}
+				}
+				return null;
+			});
+		}
+
+		for (Future<Void> result : ForkJoinPool.commonPool().invokeAll(tasks)) {
+			try {
+				result.get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+			catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+
+	/*
+		Finds the tile each draw call is completely inside of, or ANY_TILE for draw calls that cross the border of a tile
+		or the border of the image. The bounds include the anti-aliased pixels around a shape and the width of its stroke.
+	*/
+	private int[] assignTiles(Image target, Matrix2D transformation, Rectangle raster, ArrayList<Rectangle> tiles) {
+		int[] commandTiles = new int[commands.length];
+		Image measuring = target.createTile(raster);
+
+		for (int i = 0; i < commands.length; i++) {
+			Command command = commands[i];
+			commandTiles[i] = ANY_TILE;
+
+			if (command instanceof State) {
+				command.replay(measuring, transformation);
+				continue;
+			}
+
+			Rectangle bounds = command.getDeviceBounds(measuring);
+			boolean isClamped = bounds.x <= raster.x || bounds.y <= raster.y
+				|| bounds.x + bounds.width >= raster.x + raster.width || bounds.y + bounds.height >= raster.y + raster.height;
+			if (isClamped) continue;
+
+			for (int t = 0; t < tiles.size(); t++) {
+				if (tiles.get(t).contains(bounds)) {
+					commandTiles[i] = t;
+					break;
+				}
+			}
+		}
+
+		target.mergeTile(measuring);
+		return commandTiles;
+	}
+
+	@Override
+	public String toString() {
+		return "DisplayList{size: " + size() + (isCached ? ", cached" : "") + "}";
+	}
+
+	/*
+		Collects the draw calls of an image. A state command is only added when a property changed since the previous draw call.
+	*/
+	static class Recorder {
+		private final ArrayList<Command> commands = new ArrayList<>();
+		private State state = null;
+
+		/*
+			Shapes are copied, because a path can be continued after it has been drawn and the batch drawing methods reuse their shapes.
+		*/
+		public void recordShape(Image image, Shape shape, boolean fill) {
+			updateState(image);
+			commands.add(new ShapeCommand(copy(shape), fill));
+		}
+
+		public void recordText(Image image, double x, double y, String text) {
+			updateState(image);
+			commands.add(new TextCommand(x, y, text));
+		}
+
+		public void recordImage(Image image, double x, double y, double width, double height, Image source, Interpolation interpolation) {
+			updateState(image);
+			commands.add(new ImageCommand(x, y, width, height, new Image(source), interpolation));
+		}
+
+		public DisplayList toDisplayList() {
+			return new DisplayList(commands.toArray(new Command[0]));
+		}
+
+		private void updateState(Image image) {
+			if (state == null || !state.matches(image)) {
+				state = new State(image);
+				commands.add(state);
+			}
+		}
+
+		private static Shape copy(Shape shape) {
+			if (shape instanceof RectangularShape) return (Shape)((RectangularShape)shape).clone();
+			if (shape instanceof Line2D) return (Shape)((Line2D)shape).clone();
+			return new Path2D.Double(shape);
+		}
+	}
+
+	abstract static class Command {
+		public abstract void replay(Image target, Matrix2D transformation);
+
+		// the section of the raster the command changes when it is replayed on the image with its current properties
+		public Rectangle getDeviceBounds(Image image) {
+			return image.getRasterBounds();
+		}
+	}
+
+	private static class State extends Command {
+		public State(Image image) {
+			color = image.getColorARGB();
+			lineWidth = image.getLineWidth();
+			corner = image.getCorner();
+			cornerRadius = image.getCornerRadius();
+			isAntiAliased = image.isAntiAliased();
+			drawOver = image.drawOver();
+			blendMode = image.getBlendMode();
+			textFormat = image.getTextFormat().copy();
+			textRenderer = image.getTextRenderer();
+			transformation = image.getTransformation();
+		}
+
+		private final int color;
+		private final double lineWidth;
+		private final Corner corner;
+		private final double cornerRadius;
+		private final boolean isAntiAliased;
+		private final boolean drawOver;
+		private final BlendMode blendMode;
+		private final TextFormat textFormat;
+		private final TextRenderer textRenderer;
+		private final Matrix2D transformation;
+
+		public boolean matches(Image image) {
+			return color == image.getColorARGB()
+				&& lineWidth == image.getLineWidth()
+				&& corner == image.getCorner()
+				&& cornerRadius == image.getCornerRadius()
+				&& isAntiAliased == image.isAntiAliased()
+				&& drawOver == image.drawOver()
+				&& blendMode == image.getBlendMode()
+				&& textRenderer == image.getTextRenderer()
+				&& transformation.equals(image.getTransformation())
+				&& textFormat.equals(image.getTextFormat());
+		}
+
+		@Override
+		public void replay(Image target, Matrix2D transformation) {
+			replay(target, transformation, textFormat);
+		}
+
+		/*
+			The tiles are drawn at the same time and TextFormat caches its font without synchronization,
+			so each tile gets its own copy of the text format.
+		*/
+		public void replayOnTile(Image tile, Matrix2D transformation) {
+			replay(tile, transformation, textFormat.copy());
+		}
+
+		private void replay(Image target, Matrix2D transformation, TextFormat textFormat) {
+			target.setColorARGB(color);
+			target.setLineWidth(lineWidth);
+			target.setCorner(corner);
+			target.setCornerRadius(cornerRadius);
+			target.setAntiAliased(isAntiAliased);
+			target.setDrawOver(drawOver);
+			target.setBlendMode(blendMode);
+			target.setTextFormat(textFormat);
+			target.setTextRenderer(textRenderer);
+			target.setTransformation(transformation.multiply(this.transformation));
+		}
+	}
+
+	private static class ShapeCommand extends Command {
+		public ShapeCommand(Shape shape, boolean fill) {
+			this.shape = shape;
+			this.fill = fill;
+		}
+
+		private final Shape shape;
+		private final boolean fill;
+
+		@Override
+		public void replay(Image target, Matrix2D transformation) {
+			if (fill) target.fillShape(shape);
+			else target.drawShape(shape);
+		}
+
+		@Override
+		public Rectangle getDeviceBounds(Image image) {
+			return image.getDeviceBounds(shape, fill);
+		}
+	}
+
+	private static class TextCommand extends Command {
+		public TextCommand(double x, double y, String text) {
+			this.x = x;
+			this.y = y;
+			this.text = text;
+		}
+
+		private final double x;
+		private final double y;
+		private final String text;
+
+		@Override
+		public void replay(Image target, Matrix2D transformation) {
+			target.drawTextInternal(x, y, text);
+		}
+
+		@Override
+		public Rectangle getDeviceBounds(Image image) {
+			return image.getTextDeviceBounds(x, y, text);
+		}
+	}
+
+	private static class ImageCommand extends Command {
+		public ImageCommand(double x, double y, double width, double height, Image image, Interpolation interpolation) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.image = image;
+			this.interpolation = interpolation;
+		}
+
+		private final double x;
+		private final double y;
+		private final double width;
+		private final double height;
+		private final Image image;
+		private final Interpolation interpolation;
+
+		@Override
+		public void replay(Image target, Matrix2D transformation) {
+			target.drawImageInternal(x, y, width, height, image, interpolation);
+		}
+
+		@Override
+		public Rectangle getDeviceBounds(Image target) {
+			return target.getDeviceBounds(new Rectangle2D.Double((int)x, (int)y, (int)width, (int)height), true);
+		}
+	}
+
+	private static class Layer {
+		public Layer(Image image, Rectangle region, Matrix2D transformation) {
+			this.image = image;
+			this.region = region;
+			this.transformation = transformation;
+		}
+
+		public final Image image;
+		// the section of the raster that contains pixels of the display list
+		public final Rectangle region;
+		public final Matrix2D transformation;
+	}
+}
@@ -1,6 +1,7 @@
 package codedraw;
 
 import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Represents an abstract super type of the event classes in CodeDraw.
@@ -8,7 +9,13 @@ import java.time.OffsetDateTime;
 public abstract class Event {
 	Event() { }
 
-	private final OffsetDateTime timeCreated = OffsetDateTime.now();
+	private static final int OPEN = 0;
+	private static final int MERGING = 1;
+	private static final int SEALED = 2;
+	private static final AtomicIntegerFieldUpdater<Event> mergeStateUpdater = AtomicIntegerFieldUpdater.newUpdater(Event.class, "mergeState");
+
+	private OffsetDateTime timeCreated = OffsetDateTime.now();
+	private volatile int mergeState = OPEN;
 
 	/**
 	 * Gets the point in time when this event was created.
@@ -17,4 +24,25 @@ public abstract class Event {
 	public OffsetDateTime getTimeCreated() {
 		return timeCreated;
 	}
+
+	/*
+		Merging lets the thread producing events update an event that is still waiting in the EventScanner.
+		Once the event has been taken out of the EventScanner it is sealed and can no longer change.
+		A merge must be wrapped in beginMerge() and endMerge() and is only allowed if beginMerge() returns true.
+	*/
+	boolean beginMerge() {
+		return mergeStateUpdater.compareAndSet(this, OPEN, MERGING);
+	}
+
+	void endMerge(Event newer) {
+		timeCreated = newer.timeCreated;
+		mergeState = OPEN;
+	}
+
+	void seal() {
+		while (!mergeStateUpdater.compareAndSet(this, OPEN, SEALED)) {
+			if (mergeState == SEALED) return;
+			Thread.onSpinWait();
+		}
+	}
 }
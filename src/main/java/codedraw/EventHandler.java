@@ -128,7 +128,7 @@ class EventHandler implements AutoCloseable {
 
 	private KeyListener createKeyListener() {
 		return new KeyAdapter() {
-			private final KeyDownMap keyDownMap = new KeyDownMap(eventScanner, panel);
+			private final KeyDownMap keyDownMap = new KeyDownMap(eventScanner, panel::copyCanvasToClipboard);
 
 			@Override
 			public void keyPressed(KeyEvent e) {
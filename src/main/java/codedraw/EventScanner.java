@@ -94,6 +94,9 @@ import java.util.NoSuchElementException;
  * </ul>
  * When a CodeDraw window is closed all remaining events can still be consumed from the EventScanner
  * but no new events will appear.
+ * <br><br>
+ * Events should only be consumed from a single thread.
+ * New events are added without locking, so consuming events never waits for the window to produce them.
  */
 public class EventScanner implements Iterable<Event> {
 	EventScanner() {
@@ -101,11 +104,79 @@ public class EventScanner implements Iterable<Event> {
 	}
 
 	private final ConcurrentQueue<Event> queue;
+	private volatile boolean isMouseMoveCoalescing = false;
+	private volatile boolean isMouseWheelCoalescing = false;
+	// only accessed by the thread producing events, which is the AWT event dispatch thread
+	private Event lastPushedEvent = null;
 
 	void push(Event event) {
+		if (lastPushedEvent != null && tryCoalesce(lastPushedEvent, event)) {
+			return;
+		}
+
+		lastPushedEvent = event;
 		queue.push(event);
 	}
 
+	private boolean tryCoalesce(Event previous, Event event) {
+		if (isMouseMoveCoalescing && previous instanceof MouseMoveEvent && event instanceof MouseMoveEvent) {
+			return ((MouseMoveEvent) previous).merge((MouseMoveEvent) event);
+		}
+		else if (isMouseWheelCoalescing && previous instanceof MouseWheelEvent && event instanceof MouseWheelEvent) {
+			return ((MouseWheelEvent) previous).merge((MouseWheelEvent) event);
+		}
+		else {
+			return false;
+		}
+	}
+
+	/**
+	 * Defines whether consecutive mouse move events are merged into a single mouse move event.
+	 * The default is false.
+	 * See {@link #setMouseMoveCoalescing(boolean)} for details.
+	 * @return whether mouse move events are coalesced.
+	 */
+	public boolean isMouseMoveCoalescing() {
+		return isMouseMoveCoalescing;
+	}
+
+	/**
+	 * Defines whether consecutive mouse move events are merged into a single mouse move event.
+	 * When coalescing is on and a mouse move event is the newest event waiting in the EventScanner,
+	 * a new mouse move event updates the waiting event to the new position instead of being added.
+	 * Mice that report their position very often then no longer fill the EventScanner with positions
+	 * that are already outdated by the time they are consumed.
+	 * Events that have already been taken out of the EventScanner never change.
+	 * The default is false.
+	 * @param isMouseMoveCoalescing Sets whether mouse move events are coalesced.
+	 */
+	public void setMouseMoveCoalescing(boolean isMouseMoveCoalescing) {
+		this.isMouseMoveCoalescing = isMouseMoveCoalescing;
+	}
+
+	/**
+	 * Defines whether consecutive mouse wheel events are merged into a single mouse wheel event.
+	 * The default is false.
+	 * See {@link #setMouseWheelCoalescing(boolean)} for details.
+	 * @return whether mouse wheel events are coalesced.
+	 */
+	public boolean isMouseWheelCoalescing() {
+		return isMouseWheelCoalescing;
+	}
+
+	/**
+	 * Defines whether consecutive mouse wheel events are merged into a single mouse wheel event.
+	 * When coalescing is on and a mouse wheel event is the newest event waiting in the EventScanner,
+	 * the rotation of a new mouse wheel event is added to the waiting event instead of being added as a separate event.
+	 * {@link MouseWheelEvent#getWheelRotation()} then returns the sum of all merged rotations.
+	 * Events that have already been taken out of the EventScanner never change.
+	 * The default is false.
+	 * @param isMouseWheelCoalescing Sets whether mouse wheel events are coalesced.
+	 */
+	public void setMouseWheelCoalescing(boolean isMouseWheelCoalescing) {
+		this.isMouseWheelCoalescing = isMouseWheelCoalescing;
+	}
+
 	/**
 	 * Compared to {@link #hasEvent} this method does not wait until the next event is available, but instead returns immediately.
 	 * If there is currently an event available returns true otherwise false.
@@ -383,7 +454,7 @@ public class EventScanner implements Iterable<Event> {
 	 */
 	public void removeEventsOlderThan(Duration duration) {
 		while (hasNow() && peek().getTimeCreated().isBefore(OffsetDateTime.now().minus(duration))) {
-			queue.pop();
+			pop();
 		}
 	}
 
@@ -446,6 +517,12 @@ public class EventScanner implements Iterable<Event> {
 			);
 		}
 
-		return expected.cast(queue.pop());
+		return expected.cast(pop());
+	}
+
+	private Event pop() {
+		Event event = queue.pop();
+		event.seal();
+		return event;
 	}
 }
@@ -0,0 +1,375 @@
+package codedraw;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A Filter changes each pixel of an image depending on the pixels surrounding it, for example to blur an image.
+ * Filters can be applied to an image in place with {@link Image#applyFilter(Filter)}
+ * or to a copy of an image with {@link Image#filter(Image, Filter)}.
+ * <pre>{@code
+ * Filter glow = Filter.gaussianBlur(8);
+ *
+ * while (!cd.isClosed()) {
+ *     cd.clear();
+ *     // draw everything that should glow
+ *     cd.applyFilter(glow);
+ *     // draw everything on top of the glow
+ *     cd.show(16);
+ * }
+ * }</pre>
+ * Pixels outside the image are treated as copies of the closest pixel at the border of the image.
+ * Colors are weighted by their alpha value, so transparent pixels do not darken the colors of their neighbors.
+ * If the image is DPI aware the filter is scaled along with it, so the result looks the same independent of the DPI.
+ * The rows of the image are split into bands that are filtered by multiple threads of {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+ * Once created a filter cannot be changed.
+ */
+public class Filter {
+	/**
+	 * Blurs the image with a gaussian distribution.
+	 * Pixels close to a pixel have a larger influence on its color than pixels further away, which results in a smooth blur.
+	 * @param radius The distance in pixel up to which neighboring pixels are blended. A radius of 0 does not change the image.
+	 * @return a gaussian blur filter.
+	 */
+	public static Filter gaussianBlur(double radius) {
+		checkNaNAndInfinity(radius, "radius");
+		if (radius < 0) throw createParameterMustBeGreaterOrEqualToZeroException("radius");
+
+		return new Filter(Kind.GAUSSIAN, radius, 0, 0, null);
+	}
+
+	/**
+	 * Blurs the image by replacing each pixel with the average of all pixels within the radius.
+	 * A box blur is the fastest blur, its speed does not depend on the radius.
+	 * @param radius The distance in pixel up to which neighboring pixels are blended. A radius of 0 does not change the image.
+	 * @return a box blur filter.
+	 */
+	public static Filter boxBlur(int radius) {
+		if (radius < 0) throw createParameterMustBeGreaterOrEqualToZeroException("radius");
+
+		return new Filter(Kind.BOX, radius, 0, 0, null);
+	}
+
+	/**
+	 * Creates a filter from a convolution kernel.
+	 * Each pixel is replaced by the sum of its surrounding pixels multiplied by the weights of the kernel.
+	 * The weights are stored row by row, therefore the weight at (i, j) is weights[j * width + i].
+	 * The center of the kernel is at (width / 2, height / 2) rounded down.
+	 * <pre>{@code
+	 * Filter sharpen = Filter.kernel(3, 3,
+	 *      0, -1,  0,
+	 *     -1,  5, -1,
+	 *      0, -1,  0
+	 * );
+	 * }</pre>
+	 * The alpha value is filtered the same way as the colors,
+	 * therefore a kernel whose weights add up to 0 results in a transparent image.
+	 * @param width The width of the kernel.
+	 * @param height The height of the kernel.
+	 * @param weights The weights of the kernel. Must be exactly width * height long.
+	 * @return a filter applying the kernel.
+	 */
+	public static Filter kernel(int width, int height, double... weights) {
+		if (width <= 0) throw createParameterMustBeGreaterThanZeroException("width");
+		if (height <= 0) throw createParameterMustBeGreaterThanZeroException("height");
+		if (weights == null) throw createParameterNullException("weights");
+		if (weights.length != width * height) throw new IllegalArgumentException("The parameter weights must be exactly width * height long.");
+
+		float[] kernel = new float[weights.length];
+		for (int i = 0; i < weights.length; i++) {
+			checkNaNAndInfinity(weights[i], "weights");
+			kernel[i] = (float)weights[i];
+		}
+
+		return new Filter(Kind.KERNEL, 0, width, height, kernel);
+	}
+
+	private Filter(Kind kind, double radius, int kernelWidth, int kernelHeight, float[] kernel) {
+		this.kind = kind;
+		this.radius = radius;
+		this.kernelWidth = kernelWidth;
+		this.kernelHeight = kernelHeight;
+		this.kernel = kernel;
+	}
+
+	private static final int BAND_HEIGHT = 32;
+
+	private final Kind kind;
+	private final double radius;
+	private final int kernelWidth;
+	private final int kernelHeight;
+	private final float[] kernel;
+
+	/*
+		Filters the raster of an image in place. The buffer must be at least as large as the raster,
+		it is passed in by the image so that its memory can be reused between calls.
+	*/
+	void apply(int[] pixels, int width, int height, int xScale, int yScale, int[] buffer) {
+		if (kind == Kind.KERNEL) {
+			applyKernel(pixels, width, height, xScale, yScale, buffer);
+		}
+		else {
+			float[] horizontal = createWeights(xScale);
+			float[] vertical = createWeights(yScale);
+
+			if (horizontal.length > 1 || vertical.length > 1) {
+				filterRows(pixels, width, height, horizontal, buffer);
+				filterColumns(buffer, width, height, vertical, pixels);
+			}
+		}
+	}
+
+	/*
+		Gaussian and box blurs are separable, they are applied once horizontally and once vertically
+		which needs 2 * n instead of n * n multiplications per pixel.
+	*/
+	private float[] createWeights(int scale) {
+		if (kind == Kind.BOX) {
+			int n = (int)radius * scale;
+			float[] weights = new float[2 * n + 1];
+			Arrays.fill(weights, 1f / weights.length);
+			return weights;
+		}
+
+		double deviceRadius = radius * scale;
+		int n = (int)Math.ceil(deviceRadius);
+		if (n == 0) return new float[] { 1 };
+
+		// the radius covers three standard deviations which contain 99.7% of the distribution
+		double sigma = deviceRadius / 3;
+		double[] gaussian = new double[2 * n + 1];
+		double sum = 0;
+		for (int i = 0; i < gaussian.length; i++) {
+			gaussian[i] = Math.exp(-(i - n) * (i - n) / (2 * sigma * sigma));
+			sum += gaussian[i];
+		}
+
+		float[] weights = new float[gaussian.length];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = (float)(gaussian[i] / sum);
+		}
+		return weights;
+	}
+
+	/*
+		The colors are multiplied by their alpha value before they are blended and divided by the blended alpha value afterwards.
+		The result of the horizontal pass is stored without premultiplied alpha, which keeps the full 8 bit precision for translucent colors.
+	*/
+	private void filterRows(int[] source, int width, int height, float[] weights, int[] target) {
+		int n = weights.length / 2;
+
+		forEachBand(height, (y1, y2) -> {
+			float[] row = new float[(width + 2 * n) * 4];
+
+			for (int y = y1; y < y2; y++) {
+				int offset = y * width;
+
+				for (int i = 0; i < width + 2 * n; i++) {
+					int argb = source[offset + Math.min(Math.max(i - n, 0), width - 1)];
+					float a = argb >>> 24;
+					row[i * 4] = a;
+					row[i * 4 + 1] = a * ((argb >> 16) & 0xFF);
+					row[i * 4 + 2] = a * ((argb >> 8) & 0xFF);
+					row[i * 4 + 3] = a * (argb & 0xFF);
+				}
+
+				if (kind == Kind.BOX) {
+					// a box blur only has to add the pixel entering and subtract the pixel leaving the window
+					float w = weights[0];
+					float sa = 0, sr = 0, sg = 0, sb = 0;
+					for (int k = 0; k < weights.length; k++) {
+						sa += row[k * 4];
+						sr += row[k * 4 + 1];
+						sg += row[k * 4 + 2];
+						sb += row[k * 4 + 3];
+					}
+
+					for (int x = 0; x < width; x++) {
+						if (x > 0) {
+							int in = (x + 2 * n) * 4;
+							int out = (x - 1) * 4;
+							sa += row[in] - row[out];
+							sr += row[in + 1] - row[out + 1];
+							sg += row[in + 2] - row[out + 2];
+							sb += row[in + 3] - row[out + 3];
+						}
+						target[offset + x] = unpremultiply(sa * w, sr * w, sg * w, sb * w);
+					}
+				}
+				else {
+					for (int x = 0; x < width; x++) {
+						float sa = 0, sr = 0, sg = 0, sb = 0;
+						for (int k = 0; k < weights.length; k++) {
+							float w = weights[k];
+							int j = (x + k) * 4;
+							sa += w * row[j];
+							sr += w * row[j + 1];
+							sg += w * row[j + 2];
+							sb += w * row[j + 3];
+						}
+						target[offset + x] = unpremultiply(sa, sr, sg, sb);
+					}
+				}
+			}
+		});
+	}
+
+	/*
+		The vertical pass goes through the source row by row instead of column by column,
+		so that the pixels are read in the order they are stored in memory.
+	*/
+	private void filterColumns(int[] source, int width, int height, float[] weights, int[] target) {
+		int n = weights.length / 2;
+
+		forEachBand(height, (y1, y2) -> {
+			float[] sums = new float[width * 4];
+
+			for (int y = y1; y < y2; y++) {
+				int offset = y * width;
+
+				if (kind == Kind.BOX) {
+					if (y == y1) {
+						for (int k = 0; k < weights.length; k++) {
+							addRow(source, Math.min(Math.max(y + k - n, 0), height - 1) * width, width, 1, sums);
+						}
+					}
+					else {
+						addRow(source, Math.min(y + n, height - 1) * width, width, 1, sums);
+						addRow(source, Math.max(y - n - 1, 0) * width, width, -1, sums);
+					}
+
+					float w = weights[0];
+					for (int x = 0; x < width; x++) {
+						target[offset + x] = unpremultiply(sums[x * 4] * w, sums[x * 4 + 1] * w, sums[x * 4 + 2] * w, sums[x * 4 + 3] * w);
+					}
+				}
+				else {
+					Arrays.fill(sums, 0);
+					for (int k = 0; k < weights.length; k++) {
+						addRow(source, Math.min(Math.max(y + k - n, 0), height - 1) * width, width, weights[k], sums);
+					}
+
+					for (int x = 0; x < width; x++) {
+						target[offset + x] = unpremultiply(sums[x * 4], sums[x * 4 + 1], sums[x * 4 + 2], sums[x * 4 + 3]);
+					}
+				}
+			}
+		});
+	}
+
+	private static void addRow(int[] source, int offset, int width, float weight, float[] sums) {
+		for (int x = 0; x < width; x++) {
+			int argb = source[offset + x];
+			float a = weight * (argb >>> 24);
+			sums[x * 4] += a;
+			sums[x * 4 + 1] += a * ((argb >> 16) & 0xFF);
+			sums[x * 4 + 2] += a * ((argb >> 8) & 0xFF);
+			sums[x * 4 + 3] += a * (argb & 0xFF);
+		}
+	}
+
+	/*
+		A kernel is not separable in general, each pixel is calculated from all of its neighbors at once.
+		The pixels are copied first, since the filtered pixels must not affect the pixels filtered after them.
+		If the image is DPI aware the neighbors are sampled at the distance of a whole pixel.
+	*/
+	private void applyKernel(int[] pixels, int width, int height, int xScale, int yScale, int[] buffer) {
+		int centerX = kernelWidth / 2;
+		int centerY = kernelHeight / 2;
+
+		forEachBand(height, (y1, y2) -> System.arraycopy(pixels, y1 * width, buffer, y1 * width, (y2 - y1) * width));
+
+		forEachBand(height, (y1, y2) -> {
+			for (int y = y1; y < y2; y++) {
+				for (int x = 0; x < width; x++) {
+					float sa = 0, sr = 0, sg = 0, sb = 0;
+
+					for (int j = 0; j < kernelHeight; j++) {
+						int offset = Math.min(Math.max(y + (j - centerY) * yScale, 0), height - 1) * width;
+
+						for (int i = 0; i < kernelWidth; i++) {
+							float w = kernel[j * kernelWidth + i];
+							if (w == 0) continue;
+
+							int argb = buffer[offset + Math.min(Math.max(x + (i - centerX) * xScale, 0), width - 1)];
+							float a = w * (argb >>> 24);
+							sa += a;
+							sr += a * ((argb >> 16) & 0xFF);
+							sg += a * ((argb >> 8) & 0xFF);
+							sb += a * (argb & 0xFF);
+						}
+					}
+
+					pixels[y * width + x] = unpremultiply(sa, sr, sg, sb);
+				}
+			}
+		});
+	}
+
+	/*
+		The color sums are weighted by alpha, dividing them by the summed alpha returns the blended color.
+	*/
+	private static int unpremultiply(float sa, float sr, float sg, float sb) {
+		if (sa <= 0) return 0;
+
+		int a = clamp(sa);
+		int r = clamp(sr / sa);
+		int g = clamp(sg / sa);
+		int b = clamp(sb / sa);
+
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+
+	private static int clamp(float value) {
+		return Math.min(255, Math.max(0, (int)(value + 0.5f)));
+	}
+
+	private static void forEachBand(int height, Band band) {
+		int bandCount = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+
+		IntStream.range(0, bandCount).parallel().forEach(i -> {
+			int y1 = i * BAND_HEIGHT;
+			band.filter(y1, Math.min(height, y1 + BAND_HEIGHT));
+		});
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+
+	private static IllegalArgumentException createParameterMustBeGreaterThanZeroException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be greater than zero.");
+	}
+
+	private static IllegalArgumentException createParameterMustBeGreaterOrEqualToZeroException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be equal or greater than zero.");
+	}
+
+	private static void checkNaNAndInfinity(double parameter, String parameterName) {
+		if (Double.isNaN(parameter)) {
+			throw new IllegalArgumentException("The parameter '" + parameterName + "' is NaN (not a number).");
+		}
+		if (Double.isInfinite(parameter)) {
+			throw new IllegalArgumentException("The parameter '" + parameterName + "' is infinite.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		switch (kind) {
+			case GAUSSIAN: return "Filter{gaussianBlur: " + radius + "}";
+			case BOX: return "Filter{boxBlur: " + (int)radius + "}";
+			default: return "Filter{kernel: " + kernelWidth + "x" + kernelHeight + "}";
+		}
+	}
+
+	private enum Kind {
+		GAUSSIAN,
+		BOX,
+		KERNEL
+	}
+
+	private interface Band {
+		void filter(int y1, int y2);
+	}
+}
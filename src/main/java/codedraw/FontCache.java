@@ -0,0 +1,99 @@
+package codedraw;
+
+import java.awt.*;
+import java.awt.font.TextAttribute;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resolves the font of a {@link TextFormat}.
+ * Creating a font through {@link Font#getFont(Map)} is slow, therefore the most recently used fonts are kept.
+ * The cache is bounded, the least recently used font is removed once the capacity is exceeded.
+ */
+class FontCache {
+	private FontCache() { }
+
+	private static final int CAPACITY = 64;
+
+	private static final LinkedHashMap<Key, Font> cache = new LinkedHashMap<Key, Font>(CAPACITY, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Font> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	public static Font get(String fontName, int fontSize, boolean isBold, boolean isItalic, Underline underline, boolean isStrikethrough) {
+		Key key = new Key(fontName, fontSize, isBold, isItalic, underline, isStrikethrough);
+
+		synchronized (cache) {
+			Font font = cache.get(key);
+			if (font == null) {
+				font = createFont(key);
+				cache.put(key, font);
+			}
+			return font;
+		}
+	}
+
+	public static void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	private static Font createFont(Key key) {
+		Map<TextAttribute, Object> attributes = new HashMap<>();
+		attributes.put(TextAttribute.FAMILY, key.fontName);
+		attributes.put(TextAttribute.SIZE, key.fontSize);
+		attributes.put(TextAttribute.POSTURE, key.isItalic ? 0.2f : 0);
+		attributes.put(TextAttribute.UNDERLINE, underlineEnumToTextAttributeUnderlineNumber(key.underline));
+		attributes.put(TextAttribute.WEIGHT, key.isBold ? 2.0f : 1.0f);
+		attributes.put(TextAttribute.KERNING, TextAttribute.KERNING_ON); //Kerning is always on, 0 == KERNING_OFF
+		attributes.put(TextAttribute.STRIKETHROUGH, key.isStrikethrough);
+		return Font.getFont(attributes);
+	}
+
+	private static int underlineEnumToTextAttributeUnderlineNumber(Underline underline) {
+		switch (underline) {
+			case NONE: return -1;
+			case SOLID: return TextAttribute.UNDERLINE_ON;
+			case DASHED: return TextAttribute.UNDERLINE_LOW_DASHED;
+			case DOTTED: return TextAttribute.UNDERLINE_LOW_DOTTED;
+			case WAVY: return TextAttribute.UNDERLINE_LOW_GRAY;
+			default: throw new RuntimeException("Unknown underline type");
+		}
+	}
+
+	private static class Key {
+		public Key(String fontName, int fontSize, boolean isBold, boolean isItalic, Underline underline, boolean isStrikethrough) {
+			this.fontName = fontName;
+			this.fontSize = fontSize;
+			this.isBold = isBold;
+			this.isItalic = isItalic;
+			this.underline = underline;
+			this.isStrikethrough = isStrikethrough;
+		}
+
+		public final String fontName;
+		public final int fontSize;
+		public final boolean isBold;
+		public final boolean isItalic;
+		public final Underline underline;
+		public final boolean isStrikethrough;
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key that = (Key) o;
+			return fontSize == that.fontSize && isBold == that.isBold && isItalic == that.isItalic && isStrikethrough == that.isStrikethrough && fontName.equals(that.fontName) && underline == that.underline;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(fontName, fontSize, isBold, isItalic, underline, isStrikethrough);
+		}
+	}
+}
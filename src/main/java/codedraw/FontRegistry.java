@@ -0,0 +1,57 @@
+package codedraw;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Indexes the font families available on the current system.
+ * Asking the {@link GraphicsEnvironment} for all font families is slow on systems with many fonts,
+ * therefore the families are only loaded once, when they are needed for the first time.
+ * The index is immutable and replaced as a whole by {@link #refresh()}, which makes it safe to use from any thread.
+ */
+class FontRegistry {
+	private FontRegistry() { }
+
+	private static volatile Index index = null;
+
+	public static String[] getFontNames() {
+		return getIndex().fontNames.clone();
+	}
+
+	public static boolean isAvailable(String fontName) {
+		return getIndex().fontNameSet.contains(fontName);
+	}
+
+	public static void refresh() {
+		index = new Index(GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames());
+		FontCache.clear();
+	}
+
+	private static Index getIndex() {
+		Index result = index;
+
+		if (result == null) {
+			synchronized (FontRegistry.class) {
+				result = index;
+				if (result == null) {
+					result = new Index(GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames());
+					index = result;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private static class Index {
+		public Index(String[] fontNames) {
+			this.fontNames = fontNames;
+			this.fontNameSet = new HashSet<>(Arrays.asList(fontNames));
+		}
+
+		public final String[] fontNames;
+		public final Set<String> fontNameSet;
+	}
+}
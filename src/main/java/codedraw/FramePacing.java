@@ -0,0 +1,73 @@
+package codedraw;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * FramePacing defines how an animation waits for the next frame or simulation.
+ * It can be passed to {@link CodeDraw#run(Animation, int, int, int, int, FramePacing)},
+ * {@link BorderlessWindow#run(Animation, int, int, int, int, FramePacing)} and
+ * {@link FullScreen#run(Animation, Screen, int, int, FramePacing)}.
+ * Operating systems often wake a sleeping thread a few milliseconds too late,
+ * which shows up as uneven frame times at high frame rates.
+ * The pacing strategies trade CPU usage for more precise frame times.
+ */
+public enum FramePacing {
+	/**
+	 * Sleeps until the next frame or simulation.
+	 * Uses the least amount of CPU but the thread might wake up a few milliseconds too late.
+	 * This is the default.
+	 */
+	SLEEP,
+	/**
+	 * Sleeps until shortly before the next frame or simulation and then actively waits for the remaining time.
+	 * Frame times are very precise but one CPU core is busy for up to two milliseconds before each frame.
+	 */
+	SLEEP_AND_SPIN,
+	/**
+	 * Parks the thread until the next frame or simulation.
+	 * On most systems parking wakes up more precisely than sleeping while still not using the CPU.
+	 */
+	PARK;
+
+	private static final long SPIN_NANOSECONDS = 2_000_000;
+
+	void waitNanoseconds(long waitNanoseconds) {
+		if (waitNanoseconds <= 0) {
+			return;
+		}
+
+		long deadline = System.nanoTime() + waitNanoseconds;
+
+		switch (this) {
+			case SLEEP:
+				sleep(waitNanoseconds);
+				break;
+			case SLEEP_AND_SPIN:
+				sleep(waitNanoseconds - SPIN_NANOSECONDS);
+				while (System.nanoTime() - deadline < 0) {
+					Thread.onSpinWait();
+				}
+				break;
+			case PARK:
+				for (long remaining = waitNanoseconds; remaining > 0; remaining = deadline - System.nanoTime()) {
+					LockSupport.parkNanos(remaining);
+					if (Thread.interrupted()) throw new RuntimeException(new InterruptedException());
+				}
+				break;
+			default:
+				throw new RuntimeException("Unknown frame pacing.");
+		}
+	}
+
+	private static void sleep(long waitNanoseconds) {
+		if (waitNanoseconds <= 0) {
+			return;
+		}
+
+		try {
+			Thread.sleep(waitNanoseconds / 1_000_000, (int)(waitNanoseconds % 1_000_000));
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -49,13 +49,27 @@ public class FullScreen extends Image implements AutoCloseable {
 	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
 	 */
 	public static void run(Animation animation, Screen screen, int framesPerSecond, int simulationsPerSecond) {
+		run(animation, screen, framesPerSecond, simulationsPerSecond, FramePacing.SLEEP);
+	}
+
+	/**
+	 * Runs the {@link Animation} interface using a fullscreen window.
+	 * This function returns when the fullscreen window is closed by the user.
+	 * @param animation any class implementing the animation interface.
+	 * @param screen the screen which the animation should be displayed on.
+	 * @param framesPerSecond the rate at which the {@link Animation#draw(Image)} method should be called.
+	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method should be called.
+	 * @param framePacing the way the animation waits for the next frame or simulation. See {@link FramePacing}.
+	 */
+	public static void run(Animation animation, Screen screen, int framesPerSecond, int simulationsPerSecond, FramePacing framePacing) {
 		if (animation == null) throw createParameterNullException("animation");
 		if (screen == null) throw createParameterNullException("screen");
 		if (framesPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("framesPerSecond");
 		if (simulationsPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("simulationsPerSecond");
+		if (framePacing == null) throw createParameterNullException("framePacing");
 
 		FullScreen fs = new FullScreen(screen);
-		CodeDrawGUI.run(animation, fs.gui, fs, framesPerSecond, simulationsPerSecond);
+		CodeDrawGUI.run(animation, fs.gui, fs, framesPerSecond, simulationsPerSecond, framePacing);
 		fs.close();
 	}
 
@@ -0,0 +1,264 @@
+package codedraw;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the rasterized glyphs of a font at a fixed device scale.
+ * Each glyph is rendered once into a coverage mask that is packed into shared pages,
+ * afterwards drawing a glyph only blends its mask with a color directly into the pixels of an image.
+ * Glyphs are placed by their advance alone, kerning and ligatures are not applied.
+ * The atlases are bounded, the least recently used atlas is removed once the capacity is exceeded.
+ */
+class GlyphAtlas {
+	private static final int CAPACITY = 16;
+	private static final int PAGE_SIZE = 512;
+
+	private static final LinkedHashMap<Key, GlyphAtlas> cache = new LinkedHashMap<Key, GlyphAtlas>(CAPACITY, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, GlyphAtlas> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	public static GlyphAtlas get(Font font, int xScale, int yScale, boolean isAntiAliased) {
+		Key key = new Key(font, xScale, yScale, isAntiAliased);
+
+		synchronized (cache) {
+			GlyphAtlas atlas = cache.get(key);
+			if (atlas == null) {
+				atlas = new GlyphAtlas(font.deriveFont(AffineTransform.getScaleInstance(xScale, yScale)), isAntiAliased);
+				cache.put(key, atlas);
+			}
+			return atlas;
+		}
+	}
+
+	/*
+		Characters outside the basic multilingual plane are made up of two chars and cannot be rasterized one char at a time.
+	*/
+	public static boolean canRender(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (Character.isSurrogate(text.charAt(i))) return false;
+		}
+		return true;
+	}
+
+	private GlyphAtlas(Font deviceFont, boolean isAntiAliased) {
+		this.deviceFont = deviceFont;
+		this.isAntiAliased = isAntiAliased;
+		this.fontRenderContext = new FontRenderContext(null, isAntiAliased, true);
+	}
+
+	private final Font deviceFont;
+	private final boolean isAntiAliased;
+	private final FontRenderContext fontRenderContext;
+
+	private final Glyph[] latinGlyphs = new Glyph[256];
+	private final HashMap<Character, Glyph> otherGlyphs = new HashMap<>();
+
+	private byte[] page = new byte[PAGE_SIZE * PAGE_SIZE];
+	private int shelfX = 0;
+	private int shelfY = 0;
+	private int shelfHeight = 0;
+
+	public synchronized Glyph getGlyph(char c) {
+		Glyph glyph = c < latinGlyphs.length ? latinGlyphs[c] : otherGlyphs.get(c);
+
+		if (glyph == null) {
+			glyph = rasterize(c);
+			if (c < latinGlyphs.length) latinGlyphs[c] = glyph;
+			else otherGlyphs.put(c, glyph);
+		}
+
+		return glyph;
+	}
+
+	/*
+		The width of the line in raster pixels when its glyphs are placed next to each other.
+	*/
+	public double getWidth(String line) {
+		double width = 0;
+		for (int i = 0; i < line.length(); i++) {
+			width += getGlyph(line.charAt(i)).advance;
+		}
+		return width;
+	}
+
+	private Glyph rasterize(char c) {
+		GlyphVector glyphVector = deviceFont.createGlyphVector(fontRenderContext, new char[] { c });
+		double advance = glyphVector.getGlyphPosition(1).getX();
+		Rectangle bounds = glyphVector.getPixelBounds(fontRenderContext, 0, 0);
+
+		if (bounds.isEmpty()) {
+			return new Glyph(null, 0, 0, 0, 0, 0, 0, advance);
+		}
+
+		BufferedImage glyphImage = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = glyphImage.createGraphics();
+		(isAntiAliased ? AWTRenderingHint.TextAntiAliasing.ON : AWTRenderingHint.TextAntiAliasing.OFF).applyTo(g);
+		(isAntiAliased ? AWTRenderingHint.AntiAliasing.ON : AWTRenderingHint.AntiAliasing.OFF).applyTo(g);
+		AWTRenderingHint.FractionalMetrics.ON.applyTo(g);
+		AWTRenderingHint.Rendering.QUALITY.applyTo(g);
+		g.setColor(Color.WHITE);
+		g.drawGlyphVector(glyphVector, -bounds.x, -bounds.y);
+		g.dispose();
+
+		byte[] target;
+		int stride;
+		int offset;
+		if (bounds.width > PAGE_SIZE || bounds.height > PAGE_SIZE) {
+			target = new byte[bounds.width * bounds.height];
+			stride = bounds.width;
+			offset = 0;
+		}
+		else {
+			offset = allocate(bounds.width, bounds.height);
+			target = page;
+			stride = PAGE_SIZE;
+		}
+
+		int[] argb = glyphImage.getRGB(0, 0, bounds.width, bounds.height, null, 0, bounds.width);
+
+		for (int y = 0; y < bounds.height; y++) {
+			for (int x = 0; x < bounds.width; x++) {
+				target[offset + y * stride + x] = (byte)(argb[y * bounds.width + x] >>> 24);
+			}
+		}
+
+		return new Glyph(target, offset, stride, bounds.width, bounds.height, bounds.x, bounds.y, advance);
+	}
+
+	/*
+		Finds space for a mask with a simple shelf packer. The section of a glyph is never written again once it is rasterized,
+		so glyphs can be blended without holding the lock while other glyphs are added to the same page.
+		Glyphs that do not fit on a page at all get a mask of their own.
+	*/
+	private int allocate(int width, int height) {
+		if (shelfX + width > PAGE_SIZE) {
+			shelfX = 0;
+			shelfY += shelfHeight;
+			shelfHeight = 0;
+		}
+
+		if (shelfY + height > PAGE_SIZE) {
+			page = new byte[PAGE_SIZE * PAGE_SIZE];
+			shelfX = shelfY = shelfHeight = 0;
+		}
+
+		int offset = shelfY * PAGE_SIZE + shelfX;
+		shelfX += width;
+		shelfHeight = Math.max(shelfHeight, height);
+		return offset;
+	}
+
+	/*
+		Blends the glyph in the given color into the pixels inside the clip. The position is the top left corner of the glyph in raster coordinates.
+		When drawOver is false the covered pixels are replaced by the color instead of mixed, the same as AlphaComposite.Src.
+	*/
+	public static void blend(Glyph glyph, int[] pixels, int stride, Rectangle clip, int left, int top, int argb, boolean drawOver) {
+		int x1 = Math.max(clip.x, left);
+		int y1 = Math.max(clip.y, top);
+		int x2 = Math.min(clip.x + clip.width, left + glyph.width);
+		int y2 = Math.min(clip.y + clip.height, top + glyph.height);
+
+		int sa = argb >>> 24;
+		int sr = (argb >> 16) & 0xFF;
+		int sg = (argb >> 8) & 0xFF;
+		int sb = argb & 0xFF;
+
+		for (int y = y1; y < y2; y++) {
+			int maskRow = glyph.offset + (y - top) * glyph.stride - left;
+			int pixelRow = y * stride;
+
+			for (int x = x1; x < x2; x++) {
+				int coverage = glyph.mask[maskRow + x] & 0xFF;
+				if (coverage == 0) continue;
+
+				if (coverage == 255 && (sa == 255 || !drawOver)) {
+					pixels[pixelRow + x] = argb;
+					continue;
+				}
+
+				int dst = pixels[pixelRow + x];
+				int da = dst >>> 24;
+				// premultiplied blending, the source factor is the coverage and the destination factor depends on the composite
+				int dstFactor = drawOver ? 255 * 255 - sa * coverage : 255 * (255 - coverage);
+				int srcWeight = sa * coverage * 255;
+				int dstWeight = da * dstFactor;
+				int alphaWeight = srcWeight + dstWeight;
+
+				if (alphaWeight == 0) {
+					pixels[pixelRow + x] = 0;
+					continue;
+				}
+
+				int r = (int)(((long)sr * srcWeight + (long)((dst >> 16) & 0xFF) * dstWeight) / alphaWeight);
+				int g = (int)(((long)sg * srcWeight + (long)((dst >> 8) & 0xFF) * dstWeight) / alphaWeight);
+				int b = (int)(((long)sb * srcWeight + (long)(dst & 0xFF) * dstWeight) / alphaWeight);
+				int a = (alphaWeight + 255 * 255 / 2) / (255 * 255);
+
+				pixels[pixelRow + x] = (a << 24) | (r << 16) | (g << 8) | b;
+			}
+		}
+	}
+
+	static class Glyph {
+		public Glyph(byte[] mask, int offset, int stride, int width, int height, int left, int top, double advance) {
+			this.mask = mask;
+			this.offset = offset;
+			this.stride = stride;
+			this.width = width;
+			this.height = height;
+			this.left = left;
+			this.top = top;
+			this.advance = advance;
+		}
+
+		// the coverage of each pixel of the glyph, null for glyphs without any visible pixels
+		public final byte[] mask;
+		public final int offset;
+		public final int stride;
+		public final int width;
+		public final int height;
+		// the position of the top left corner of the mask relative to the origin of the glyph on the baseline
+		public final int left;
+		public final int top;
+		// the distance to the origin of the next glyph in raster pixels
+		public final double advance;
+	}
+
+	private static class Key {
+		public Key(Font font, int xScale, int yScale, boolean isAntiAliased) {
+			this.font = font;
+			this.xScale = xScale;
+			this.yScale = yScale;
+			this.isAntiAliased = isAntiAliased;
+		}
+
+		public final Font font;
+		public final int xScale;
+		public final int yScale;
+		public final boolean isAntiAliased;
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key that = (Key) o;
+			return xScale == that.xScale && yScale == that.yScale && isAntiAliased == that.isAntiAliased && font.equals(that.font);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(font, xScale, yScale, isAntiAliased);
+		}
+	}
+}
@@ -0,0 +1,338 @@
+package codedraw;
+
+import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * HeadlessCodeDraw works like {@link CodeDraw} but never opens a window.
+ * It can be used to render images and animations on servers, in tests or in continuous integration,
+ * where no display is available.
+ * Each time {@link #show()} is called a copy of the canvas is passed to the frame callback.
+ * If no frame callback is specified the frames are kept in memory and can be accessed via {@link #getFrames()}.
+ * <pre>{@code
+ * HeadlessCodeDraw cd = new HeadlessCodeDraw(600, 600, frame -> frames.add(frame));
+ * cd.moveMouse(300, 300);
+ * cd.run(new MyAnimation(), 120);
+ * }</pre>
+ * Events cannot be created by a user, instead they can be simulated with methods like
+ * {@link #moveMouse(int, int)}, {@link #clickMouse(int, int, MouseButton)} or {@link #pressKey(Key)}.
+ * Animations started with {@link #run(Animation, int)} are not paced in real time,
+ * they run as fast as the CPU allows while still calling simulate and draw in the same order and ratio as {@link CodeDraw#run(Animation)}.
+ */
+public class HeadlessCodeDraw extends Image implements AutoCloseable {
+	/**
+	 * Creates a headless canvas with the specified size.
+	 * All frames are kept in memory and can be accessed via {@link #getFrames()}.
+	 * @param canvasWidth must be at least 1 pixel
+	 * @param canvasHeight must be at least 1 pixel
+	 */
+	public HeadlessCodeDraw(int canvasWidth, int canvasHeight) {
+		super(canvasWidth, canvasHeight);
+		frameCallback = frames::add;
+	}
+
+	/**
+	 * Creates a headless canvas with the specified size.
+	 * Every frame is passed to the frame callback and not kept by this HeadlessCodeDraw instance.
+	 * @param canvasWidth must be at least 1 pixel
+	 * @param canvasHeight must be at least 1 pixel
+	 * @param frameCallback receives a copy of the canvas each time {@link #show()} is called.
+	 */
+	public HeadlessCodeDraw(int canvasWidth, int canvasHeight, Consumer<Image> frameCallback) {
+		super(canvasWidth, canvasHeight);
+		if (frameCallback == null) throw createParameterNullException("frameCallback");
+
+		this.frameCallback = frameCallback;
+	}
+
+	private final Consumer<Image> frameCallback;
+	private final List<Image> frames = new ArrayList<>();
+	private final EventScanner eventScanner = new EventScanner();
+	private final MouseClickMap clickMap = new MouseClickMap(eventScanner);
+	private final KeyDownMap keyDownMap = new KeyDownMap(eventScanner, () -> { });
+	// only used as the source of the simulated AWT events, it is never displayed
+	private final Component eventSource = new Canvas();
+
+	private boolean isInstantDraw = false;
+	private boolean isClosed = false;
+	private int frameCount = 0;
+
+	/**
+	 * Gets the EventScanner of this HeadlessCodeDraw instance.
+	 * All simulated events can be read from it.
+	 * See the {@link EventScanner} for more details on how to use it.
+	 * @return an EventScanner.
+	 */
+	public EventScanner getEventScanner() {
+		return eventScanner;
+	}
+
+	/**
+	 * When InstantDraw is enabled every drawn shape immediately creates a new frame.
+	 * InstantDraw is disabled per default.
+	 * @return whether InstantDraw is enabled.
+	 */
+	public boolean isInstantDraw() {
+		return isInstantDraw;
+	}
+
+	/**
+	 * When InstantDraw is enabled every drawn shape immediately creates a new frame.
+	 * InstantDraw is disabled per default.
+	 * @param isInstantDraw defines whether InstantDraw is enabled.
+	 */
+	public void setInstantDraw(boolean isInstantDraw) {
+		this.isInstantDraw = isInstantDraw;
+	}
+
+	/**
+	 * The frames created by {@link #show()} if no frame callback was specified in the constructor.
+	 * Otherwise, the list is always empty.
+	 * @return an unmodifiable list of frames in the order they were shown.
+	 */
+	public List<Image> getFrames() {
+		return Collections.unmodifiableList(frames);
+	}
+
+	/**
+	 * The number of times {@link #show()} has been called.
+	 * @return the number of frames.
+	 */
+	public int getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Passes a copy of the canvas to the frame callback.
+	 */
+	public void show() {
+		checkIsClosed();
+
+		Image frame = new Image(getWidth(), getHeight(), Palette.TRANSPARENT);
+		copyPixelsTo(frame, getRasterBounds());
+		takeDirtyRegion();
+
+		frameCount++;
+		frameCallback.accept(frame);
+	}
+
+	/**
+	 * Runs the {@link Animation} interface on this canvas until the specified amount of frames have been drawn
+	 * or this HeadlessCodeDraw instance is closed.
+	 * Uses 60 frames per second and 60 simulations per second.
+	 * @param animation any class implementing the animation interface.
+	 * @param frameCount the amount of frames that are drawn.
+	 */
+	public void run(Animation animation, int frameCount) {
+		run(animation, frameCount, 60, 60);
+	}
+
+	/**
+	 * Runs the {@link Animation} interface on this canvas until the specified amount of frames have been drawn
+	 * or this HeadlessCodeDraw instance is closed.
+	 * The animation is not paced in real time. Instead, simulate is called as many times per frame
+	 * as it would be called in a real window with the same frame and simulation rates.
+	 * Events that were simulated before calling this method are dispatched before the first call to simulate.
+	 * @param animation any class implementing the animation interface.
+	 * @param frameCount the amount of frames that are drawn.
+	 * @param framesPerSecond the rate at which the {@link Animation#draw(Image)} method would be called.
+	 * @param simulationsPerSecond the rate at which the {@link Animation#simulate()} method would be called.
+	 */
+	public void run(Animation animation, int frameCount, int framesPerSecond, int simulationsPerSecond) {
+		if (animation == null) throw createParameterNullException("animation");
+		if (frameCount < 0) throw createParameterZeroOrGreaterException("frameCount");
+		if (framesPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("framesPerSecond");
+		if (simulationsPerSecond < 1) throw createParameterMustBeGreaterThanZeroException("simulationsPerSecond");
+
+		long simulationsDone = 0;
+
+		for (long frame = 0; frame < frameCount && !isClosed; frame++) {
+			// frame number f is due at f / framesPerSecond seconds, simulation number s at s / simulationsPerSecond seconds
+			long simulationsDue = frame * simulationsPerSecond / framesPerSecond + 1;
+
+			while (simulationsDone < simulationsDue) {
+				CodeDrawGUI.dispatchEvents(eventScanner, animation);
+				animation.simulate();
+				simulationsDone++;
+			}
+
+			double interpolation = (double)(frame * simulationsPerSecond % framesPerSecond) / framesPerSecond;
+			animation.draw(this, interpolation);
+			show();
+		}
+	}
+
+	/**
+	 * Simulates the mouse moving to the specified position.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 */
+	public void moveMouse(int x, int y) {
+		MouseEvent e = createMouseEvent(MouseEvent.MOUSE_MOVED, x, y, MouseEvent.NOBUTTON);
+		clickMap.mouseMoved(e);
+		eventScanner.push(new MouseMoveEvent(e));
+	}
+
+	/**
+	 * Simulates the mouse entering the canvas at the specified position.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 */
+	public void enterMouse(int x, int y) {
+		eventScanner.push(new MouseEnterEvent(createMouseEvent(MouseEvent.MOUSE_ENTERED, x, y, MouseEvent.NOBUTTON)));
+	}
+
+	/**
+	 * Simulates the mouse leaving the canvas at the specified position.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 */
+	public void leaveMouse(int x, int y) {
+		eventScanner.push(new MouseLeaveEvent(createMouseEvent(MouseEvent.MOUSE_EXITED, x, y, MouseEvent.NOBUTTON)));
+	}
+
+	/**
+	 * Simulates a mouse button being pressed down at the specified position.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 * @param mouseButton the mouse button that is pressed.
+	 */
+	public void pressMouse(int x, int y, MouseButton mouseButton) {
+		if (mouseButton == null) throw createParameterNullException("mouseButton");
+
+		MouseEvent e = createMouseEvent(MouseEvent.MOUSE_PRESSED, x, y, mouseButton.ordinal() + 1);
+		clickMap.mousePressed(e);
+		eventScanner.push(new MouseDownEvent(e));
+	}
+
+	/**
+	 * Simulates a mouse button being released at the specified position.
+	 * Triggers a {@link MouseClickEvent} if the mouse did not move too far since the mouse button was pressed.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 * @param mouseButton the mouse button that is released.
+	 */
+	public void releaseMouse(int x, int y, MouseButton mouseButton) {
+		if (mouseButton == null) throw createParameterNullException("mouseButton");
+
+		MouseEvent e = createMouseEvent(MouseEvent.MOUSE_RELEASED, x, y, mouseButton.ordinal() + 1);
+		clickMap.mouseReleased(e);
+		eventScanner.push(new MouseUpEvent(e));
+	}
+
+	/**
+	 * Simulates a mouse button being pressed and released at the specified position.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 * @param mouseButton the mouse button that is clicked.
+	 */
+	public void clickMouse(int x, int y, MouseButton mouseButton) {
+		pressMouse(x, y, mouseButton);
+		releaseMouse(x, y, mouseButton);
+	}
+
+	/**
+	 * Simulates the mouse wheel being turned while the mouse is at the specified position.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 * @param wheelRotation The amount of wheel rotation. Positive values are scrolling towards the user.
+	 */
+	public void turnMouseWheel(int x, int y, double wheelRotation) {
+		checkNaNAndInfinity(wheelRotation, "wheelRotation");
+
+		eventScanner.push(new MouseWheelEvent(new java.awt.event.MouseWheelEvent(
+				eventSource, java.awt.event.MouseWheelEvent.MOUSE_WHEEL, System.currentTimeMillis(), 0,
+				x, y, x, y, 0, false, java.awt.event.MouseWheelEvent.WHEEL_UNIT_SCROLL, 1,
+				(int) wheelRotation, wheelRotation
+		)));
+	}
+
+	/**
+	 * Simulates a key being pressed down.
+	 * Holding a key down can be simulated by calling this method multiple times before calling {@link #releaseKey(Key)}.
+	 * @param key the key that is pressed.
+	 */
+	public void pressKey(Key key) {
+		if (key == null) throw createParameterNullException("key");
+
+		KeyEvent e = new KeyEvent(eventSource, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, key.getKeyCode(), KeyEvent.CHAR_UNDEFINED);
+		keyDownMap.keyPress(e);
+		eventScanner.push(new KeyPressEvent(e));
+	}
+
+	/**
+	 * Simulates a key being released.
+	 * @param key the key that is released.
+	 */
+	public void releaseKey(Key key) {
+		if (key == null) throw createParameterNullException("key");
+
+		KeyEvent e = new KeyEvent(eventSource, KeyEvent.KEY_RELEASED, System.currentTimeMillis(), 0, key.getKeyCode(), KeyEvent.CHAR_UNDEFINED);
+		keyDownMap.keyRelease(e);
+		eventScanner.push(new KeyUpEvent(e));
+	}
+
+	private MouseEvent createMouseEvent(int id, int x, int y, int button) {
+		int modifiers = button == MouseEvent.NOBUTTON ? 0 : InputEvent.getMaskForButton(button);
+		return new MouseEvent(eventSource, id, System.currentTimeMillis(), modifiers, x, y, 1, false, button);
+	}
+
+	/**
+	 * Checks whether this HeadlessCodeDraw instance is already closed.
+	 * @return whether this HeadlessCodeDraw instance is closed.
+	 */
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Closes this HeadlessCodeDraw instance and triggers a {@link WindowCloseEvent}.
+	 * Frames can no longer be shown afterwards.
+	 */
+	@Override
+	public void close() {
+		if (isClosed) return;
+
+		isClosed = true;
+		eventScanner.push(new WindowCloseEvent());
+	}
+
+	private void checkIsClosed() {
+		if (isClosed) {
+			throw new RuntimeException("This HeadlessCodeDraw instance has already been closed. Frames can no longer be shown.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "HeadlessCodeDraw " + getWidth() + "x" + getHeight();
+	}
+
+	@Override
+	protected void afterDrawing() {
+		if (isInstantDraw) show();
+	}
+
+	private static void checkNaNAndInfinity(double value, String parameterName) {
+		if (Double.isNaN(value)) throw new IllegalArgumentException("The parameter " + parameterName + " cannot be NaN.");
+		if (Double.isInfinite(value)) throw new IllegalArgumentException("The parameter " + parameterName + " cannot be infinite.");
+	}
+
+	private static IllegalArgumentException createParameterNullException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+	}
+
+	private static IllegalArgumentException createParameterZeroOrGreaterException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be equal to or greater than zero.");
+	}
+
+	private static IllegalArgumentException createParameterMustBeGreaterThanZeroException(String parameterName) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be greater than zero.");
+	}
+}
@@ -4,11 +4,16 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.geom.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.awt.image.RenderedImage;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
 
 /**
  * This class represents an image that can be used within the CodeDraw library.
@@ -353,6 +358,23 @@ public class Image {
 		return result;
 	}
 
+	/**
+	 * Creates a new image from the given image with the filter applied to it.
+	 * The source image is not changed.
+	 * To filter an image in place use {@link #applyFilter(Filter)} instead.
+	 * @param source The image the filtered image is created from.
+	 * @param filter The filter that is applied. See {@link Filter}.
+	 * @return the filtered image.
+	 */
+	public static Image filter(Image source, Filter filter) {
+		if (source == null) throw createParameterNullException("source");
+		if (filter == null) throw createParameterNullException("filter");
+
+		Image result = new Image(source);
+		result.applyFilter(filter);
+		return result;
+	}
+
 	/**
 	 * Creates a copy of the image supplied as a parameter.
 	 * The configuration of the image will not be copied.
@@ -402,7 +424,7 @@ public class Image {
 		this(width, height, upscale(dpi.getScaleX()), upscale(dpi.getScaleY()), backgroundColor);
 	}
 
-	private Image(int width, int height, int xScale, int yScale, Color backgroundColor) {
+	Image(int width, int height, int xScale, int yScale, Color backgroundColor) {
 		if (width < 1) throw createParameterMustBeGreaterThanZeroException("width");
 		if (height < 1) throw createParameterMustBeGreaterThanZeroException("height");
 		if (xScale < 1) throw createParameterMustBeGreaterThanZeroException("xScale");
@@ -412,31 +434,77 @@ public class Image {
 		this.height = height;
 		this.xScale = xScale;
 		this.yScale = yScale;
+		this.rasterClip = null;
 
 		image = new BufferedImage(width * xScale, height * yScale, BufferedImage.TYPE_INT_ARGB);
+		pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
 		g = image.createGraphics();
 
 		setRenderingHints();
 		setDrawOver(false); // If the background-color is transparent it should not be drawn over but instead set
-		clearInternal(backgroundColor); // If a transparent background color is set the resulting image should also be transparent.
+		clearInternal(backgroundColor.getRGB()); // If a transparent background color is set the resulting image should also be transparent.
 
 		resetProperties();
 	}
 
+	/*
+		Shares the raster of the parent, but has its own graphics object that can only draw inside the clip.
+		Multiple tiles of the same image can be drawn to in parallel, as long as their clips do not overlap.
+	*/
+	private Image(Image parent, Rectangle rasterClip) {
+		this.width = parent.width;
+		this.height = parent.height;
+		this.xScale = parent.xScale;
+		this.yScale = parent.yScale;
+		this.rasterClip = rasterClip;
+
+		image = parent.image;
+		pixels = parent.pixels;
+		g = image.createGraphics();
+		g.setClip(rasterClip);
+
+		setRenderingHints();
+		resetProperties();
+	}
+
 	private final BufferedImage image;
+	private final int[] pixels;
 	private final Graphics2D g;
 	private final int width;
 	private final int height;
 	private final int xScale;
 	private final int yScale;
+	// the section of the raster this image may change, null if it can change all pixels, see createTile
+	private final Rectangle rasterClip;
 
 	private double lineWidth = 1;
 	private Corner corner = Corner.SHARP;
 	private double cornerRadius = 10;
 	private boolean isAntiAliased = true;
 	private boolean drawOver = true;
+	private BlendMode blendMode = BlendMode.NORMAL;
 	private TextFormat textFormat = new TextFormat();
-	private Matrix2D transformation = Matrix2D.IDENTITY;
+	private TextRenderer textRenderer = TextRenderer.OUTLINE;
+	private Matrix2D transformation = null;
+	// the transformation including the DPI scaling, reused for every change of the transformation
+	private final AffineTransform deviceTransform = new AffineTransform();
+	private static final AffineTransform IDENTITY = new AffineTransform();
+
+	// not null while draw calls are recorded, see startRecording
+	private DisplayList.Recorder recorder = null;
+
+	// the intermediate pixels of applyFilter, kept so that filtering every frame does not allocate a new raster each time
+	private int[] filterBuffer = null;
+
+	// reused by the batch drawing methods so drawing thousands of shapes does not allocate thousands of objects
+	private final Line2D.Double batchLine = new Line2D.Double();
+	private final Ellipse2D.Double batchEllipse = new Ellipse2D.Double();
+	private final Rectangle2D.Double batchRectangle = new Rectangle2D.Double();
+	private final RoundRectangle2D.Double batchRoundRectangle = new RoundRectangle2D.Double();
+
+	// The bounds of all pixels of the raster that have been modified since the last call to takeDirtyRegion.
+	private final Rectangle dirtyRegion = new Rectangle(0, 0, -1, -1);
+	private final double[] dirtyCorners = new double[8];
 
 	/**
 	 * Sets all drawing properties to their default value.
@@ -448,8 +516,10 @@ public class Image {
 		setCornerRadius(10);
 		setAntiAliased(true);
 		setTextFormat(new TextFormat());
+		setTextRenderer(TextRenderer.OUTLINE);
 		setTransformationToIdentity();
 		setDrawOver(true);
+		setBlendMode(BlendMode.NORMAL);
 	}
 
 	private void setRenderingHints() {
@@ -494,6 +564,27 @@ public class Image {
 		g.setColor(color);
 	}
 
+	/**
+	 * Defines the color that is used for drawing all shapes.
+	 * The color is returned as a packed ARGB integer, the same format as returned by {@link Color#getRGB()}.
+	 * @return the drawing color of this CodeDraw window.
+	 */
+	public int getColorARGB() {
+		return g.getColor().getRGB();
+	}
+
+	/**
+	 * Defines the color that is used for drawing all shapes.
+	 * The 8 most significant bits represent the alpha value, followed by 8 bits each for red, green and blue.
+	 * Use {@link Palette#packARGB(int, int, int, int)} to create such a color.
+	 * Unlike {@link #setColor(Color)} this method does not require a new {@link Color} object for each color,
+	 * which makes it well suited for loops that change the color for every shape.
+	 * @param argb Sets the drawing color of this CodeDraw window.
+	 */
+	public void setColorARGB(int argb) {
+		g.setColor(ColorCache.get(argb));
+	}
+
 	/**
 	 * Defines the width or thickness of drawn shapes and lines.
 	 * Must be greater than zero.
@@ -575,6 +666,27 @@ public class Image {
 		this.textFormat = textFormat;
 	}
 
+	/**
+	 * Defines how text is turned into pixels.
+	 * See {@link TextRenderer} for the available options.
+	 * @return the text renderer used by {@link #drawText(double, double, String)}.
+	 */
+	public TextRenderer getTextRenderer() {
+		return textRenderer;
+	}
+
+	/**
+	 * Defines how text is turned into pixels.
+	 * {@link TextRenderer#GLYPH_ATLAS} is much faster when a lot of small text is drawn,
+	 * {@link TextRenderer#OUTLINE} is the default and supports every text and transformation.
+	 * @param textRenderer Sets the text renderer used by {@link #drawText(double, double, String)}.
+	 */
+	public void setTextRenderer(TextRenderer textRenderer) {
+		if (textRenderer == null) throw createParameterNullException("textRenderer");
+
+		this.textRenderer = textRenderer;
+	}
+
 	/**
 	 * Defines whether drawn text and shapes are anti-aliased.
 	 * See <a href="https://en.wikipedia.org/wiki/Spatial_anti-aliasing">Wikipedia Spatial Anti-aliasing</a> for details.
@@ -623,11 +735,46 @@ public class Image {
 	 */
 	public void setDrawOver(boolean drawOver) {
 		this.drawOver = drawOver;
-		g.setComposite(drawOver ? AlphaComposite.SrcOver : AlphaComposite.Src);
+		updateComposite();
+	}
+
+	/**
+	 * Defines how the colors of drawn shapes, texts and images are combined with the colors already on this image.
+	 * @return the current blend mode.
+	 */
+	public BlendMode getBlendMode() {
+		return blendMode;
+	}
+
+	/**
+	 * Defines how the colors of drawn shapes, texts and images are combined with the colors already on this image.
+	 * For example {@link BlendMode#ADD} makes overlapping colors brighter, which is useful for lights and particles.
+	 * Blend modes other than {@link BlendMode#NORMAL} always mix with the existing pixels, regardless of {@link #setDrawOver(boolean)}.
+	 * Images with the same DPI scaling as this image that are neither scaled nor rotated
+	 * are blended pixel by pixel directly, without going through Java2D.
+	 * Pixel operations like {@link #setPixel(int, int, int)} and {@link #clear()} ignore the blend mode.
+	 * See {@link BlendMode} for details.
+	 * @param blendMode the blend mode used to draw.
+	 */
+	public void setBlendMode(BlendMode blendMode) {
+		if (blendMode == null) throw createParameterNullException("blendMode");
+
+		this.blendMode = blendMode;
+		updateComposite();
+	}
+
+	private void updateComposite() {
+		Composite composite = blendMode != BlendMode.NORMAL ? BlendComposite.get(blendMode) : drawOver ? AlphaComposite.SrcOver : AlphaComposite.Src;
+		if (g.getComposite() != composite) {
+			g.setComposite(composite);
+		}
 	}
 
 	private void updateBrush() {
-		g.setStroke(new BasicStroke((float)lineWidth, getCap(corner), getJoin(corner)));
+		BasicStroke stroke = StrokeCache.get((float)lineWidth, getCap(corner), getJoin(corner));
+		if (g.getStroke() != stroke) {
+			g.setStroke(stroke);
+		}
 	}
 
 	private static int getCap(Corner corner) {
@@ -668,8 +815,12 @@ public class Image {
 	 * @param transformation a 2d matrix with a specific transformation.
 	 */
 	public void setTransformation(Matrix2D transformation) {
+		if (transformation == null) throw createParameterNullException("transformation");
+		if (transformation.equals(this.transformation)) return;
+
 		this.transformation = transformation;
-		this.g.setTransform(transformation.scale(xScale, yScale).toAffineTransform());
+		transformation.copyTo(deviceTransform, xScale, yScale);
+		this.g.setTransform(deviceTransform);
 	}
 
 	/**
@@ -692,41 +843,8 @@ public class Image {
 		checkNaNAndInfinity(x, "x");
 		checkNaNAndInfinity(y, "y");
 
-		// BufferedImage.getRGB(), BufferedImage.setRGB() and Color.getRGB() all return ARGB colors, NOT RGBA!
-		if (xScale == 1 && yScale == 1) {
-			return Palette.fromARGB(image.getRGB(x, y));
-		}
-		else {
-			int[] argb = new int[xScale * yScale];
-
-			int xStart = x * xScale;
-			int yStart = y * yScale;
-
-			for (int xi = 0; xi < xScale; xi++) {
-				for (int yi = 0; yi < yScale; yi++) {
-					argb[xi * xScale + yi] = image.getRGB(xi + xStart, yi + yStart);
-				}
-			}
-
-			return Palette.fromARGB(
-				averageColor(argb, 3),
-				averageColor(argb, 2),
-				averageColor(argb, 1),
-				averageColor(argb, 0)
-			);
-		}
-	}
-
-	private static int averageColor(int[] colors, int colorComponentIndex) {
-		if (colorComponentIndex < 0 || 3 < colorComponentIndex) throw new RuntimeException("Invalid color component index. This is an error of the CodeDraw library.");
-
-		int sum = 0;
-
-		for (int color : colors) {
-			sum += (color >> (8 * colorComponentIndex)) & 0xFF;
-		}
-
-		return sum / colors.length;
+		// Color.getRGB() and the raster of this image all use ARGB colors, NOT RGBA!
+		return Palette.fromARGB(PixelView.readPixel(pixels, image.getWidth(), xScale, yScale, x, y));
 	}
 
 	/**
@@ -742,18 +860,211 @@ public class Image {
 		checkNaNAndInfinity(x, "x");
 		checkNaNAndInfinity(y, "y");
 
-		// BufferedImage.getRGB(), BufferedImage.setRGB() and Color.getRGB() all return ARGB colors, NOT RGBA!
+		// Color.getRGB() and the raster of this image all use ARGB colors, NOT RGBA!
 		beforeDrawing();
 		if (0 <= x && x < getWidth() && 0 <= y && y < getHeight()) {
-			int argb = color.getRGB();
-			int xStart = x * xScale;
-			int yStart = y * yScale;
+			PixelView.writePixel(pixels, image.getWidth(), xScale, yScale, x, y, color.getRGB());
+			markPixelsDirty(x, y, 1, 1);
+		}
+		afterDrawing();
+	}
+
+	/**
+	 * Returns the pixel color at the specified location as a packed ARGB integer.
+	 * The 8 most significant bits represent the alpha value, followed by 8 bits each for red, green and blue.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 * @return the pixel color as a packed ARGB integer.
+	 */
+	public int getPixelARGB(int x, int y) {
+		if (x < 0 || getWidth() <= x) throw createParameterNotInRangeException("x", 0, getWidth());
+		if (y < 0 || getHeight() <= y) throw createParameterNotInRangeException("y", 0, getHeight());
+
+		return PixelView.readPixel(pixels, image.getWidth(), xScale, yScale, x, y);
+	}
+
+	/**
+	 * Draws a point which is the size of one pixel.
+	 * The 8 most significant bits of the color represent the alpha value, followed by 8 bits each for red, green and blue.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * No exception is thrown if x or y are outside the bounds of this image.
+	 * @param x The distance in pixel from the left side of the canvas.
+	 * @param y The distance in pixel from the top side of the canvas.
+	 * @param argb the color of the pixel as a packed ARGB integer.
+	 */
+	public void setPixel(int x, int y, int argb) {
+		beforeDrawing();
+		if (0 <= x && x < getWidth() && 0 <= y && y < getHeight()) {
+			PixelView.writePixel(pixels, image.getWidth(), xScale, yScale, x, y, argb);
+			markPixelsDirty(x, y, 1, 1);
+		}
+		afterDrawing();
+	}
+
+	/**
+	 * Copies a rectangular section of pixels into the argb array.
+	 * The pixels are stored row by row, therefore the pixel (x + i, y + j) is written to argb[j * width + i].
+	 * Each pixel is stored as a packed ARGB integer, the same format as returned by {@link Color#getRGB()}.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * <pre>{@code
+	 * int[] argb = new int[image.getWidth() * image.getHeight()];
+	 * image.getPixels(argb, 0, 0, image.getWidth(), image.getHeight());
+	 * }</pre>
+	 * @param argb The array the ARGB colors are written to. Must be at least width * height long.
+	 * @param x The distance in pixel from the left side of the canvas to the left side of the section.
+	 * @param y The distance in pixel from the top side of the canvas to the top side of the section.
+	 * @param width The width of the section in pixel.
+	 * @param height The height of the section in pixel.
+	 */
+	public void getPixels(int[] argb, int x, int y, int width, int height) {
+		PixelView.checkSection(argb, x, y, width, height, getWidth(), getHeight());
+
+		PixelView.readPixels(pixels, image.getWidth(), xScale, yScale, argb, x, y, width, height);
+	}
+
+	/**
+	 * Copies the argb array into a rectangular section of pixels.
+	 * The pixels are read row by row, therefore argb[j * width + i] is written to the pixel (x + i, y + j).
+	 * Each pixel is read as a packed ARGB integer, the same format as returned by {@link Color#getRGB()}.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * @param argb The array the ARGB colors are read from. Must be at least width * height long.
+	 * @param x The distance in pixel from the left side of the canvas to the left side of the section.
+	 * @param y The distance in pixel from the top side of the canvas to the top side of the section.
+	 * @param width The width of the section in pixel.
+	 * @param height The height of the section in pixel.
+	 */
+	public void setPixels(int[] argb, int x, int y, int width, int height) {
+		PixelView.checkSection(argb, x, y, width, height, getWidth(), getHeight());
+
+		beforeDrawing();
+		PixelView.writePixels(pixels, image.getWidth(), xScale, yScale, argb, x, y, width, height);
+		markPixelsDirty(x, y, width, height);
+		afterDrawing();
+	}
+
+	/**
+	 * Gives direct access to the pixels of this image for the duration of this call.
+	 * This is the fastest way to read and write many pixels, because no {@link Color} objects are created.
+	 * The {@link PixelView} must not be used after this method returns.
+	 * <pre>{@code
+	 * image.editPixels(pixels -> {
+	 *     for (int y = 0; y < pixels.getHeight(); y++) {
+	 *         for (int x = 0; x < pixels.getWidth(); x++) {
+	 *             pixels.setPixel(x, y, 0xFF000000 | (x << 16) | y);
+	 *         }
+	 *     }
+	 * });
+	 * }</pre>
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * See {@link PixelView} for details.
+	 * @param edit A function that reads or writes the pixels of this image.
+	 */
+	public void editPixels(Consumer<PixelView> edit) {
+		if (edit == null) throw createParameterNullException("edit");
+
+		PixelView view = new PixelView(pixels, image.getWidth(), width, height, xScale, yScale);
+
+		beforeDrawing();
+		try {
+			edit.accept(view);
+		}
+		finally {
+			view.close();
+			markAllDirty();
+		}
+		afterDrawing();
+	}
 
-			for (int xi = xStart; xi < xStart + xScale; xi++) {
-				for (int yi = yStart; yi < yStart + yScale; yi++) {
-					image.setRGB(xi, yi, argb);
+	/**
+	 * Sets every pixel of this image to the color calculated by the function.
+	 * The function receives the x and y coordinate of a pixel and returns its new color as a packed ARGB integer.
+	 * The rows of the image are split up and calculated by multiple threads of {@link java.util.concurrent.ForkJoinPool#commonPool()},
+	 * therefore the function must be safe to call from multiple threads at once.
+	 * <pre>{@code
+	 * image.forEachPixel((x, y) -> 0xFF000000 | (x % 256 << 16) | (y % 256));
+	 * }</pre>
+	 * If this image is DPI aware the function is called once per pixel and the color is written to all of its sub-pixels.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * @param function calculates the color of the pixel at (x, y).
+	 */
+	public void forEachPixel(IntBinaryOperator function) {
+		if (function == null) throw createParameterNullException("function");
+
+		int stride = image.getWidth();
+
+		beforeDrawing();
+		try {
+			IntStream.range(0, height).parallel().forEach(y -> {
+				for (int x = 0; x < width; x++) {
+					PixelView.writePixel(pixels, stride, xScale, yScale, x, y, function.applyAsInt(x, y));
 				}
-			}
+			});
+		}
+		finally {
+			markAllDirty();
+		}
+		afterDrawing();
+	}
+
+	/**
+	 * Replaces the color of every pixel of this image with the color calculated by the mapper.
+	 * The rows of the image are split up and calculated by multiple threads of {@link java.util.concurrent.ForkJoinPool#commonPool()},
+	 * therefore the mapper must be safe to call from multiple threads at once.
+	 * <pre>{@code
+	 * // inverts the colors of the image
+	 * image.mapPixels((x, y, argb) -> argb ^ 0x00FFFFFF);
+	 * }</pre>
+	 * If this image is DPI aware the mapper receives the average of the sub-pixels and the result is written to all of them.
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * See {@link PixelMapper} for details.
+	 * @param mapper calculates the new color of each pixel.
+	 */
+	public void mapPixels(PixelMapper mapper) {
+		if (mapper == null) throw createParameterNullException("mapper");
+
+		int stride = image.getWidth();
+
+		beforeDrawing();
+		try {
+			IntStream.range(0, height).parallel().forEach(y -> {
+				for (int x = 0; x < width; x++) {
+					int argb = PixelView.readPixel(pixels, stride, xScale, yScale, x, y);
+					PixelView.writePixel(pixels, stride, xScale, yScale, x, y, mapper.map(x, y, argb));
+				}
+			});
+		}
+		finally {
+			markAllDirty();
+		}
+		afterDrawing();
+	}
+
+	/**
+	 * Applies the filter to this image, for example to blur it.
+	 * The pixels of this image are replaced by the filtered pixels.
+	 * The memory needed while filtering is kept by this image and reused the next time a filter is applied,
+	 * so applying a filter every frame does not allocate a new image each time.
+	 * <pre>{@code
+	 * image.applyFilter(Filter.gaussianBlur(5));
+	 * }</pre>
+	 * Ignores any transformation set by {@link #setTransformation(Matrix2D)}.
+	 * See {@link Filter} for details.
+	 * @param filter the filter that is applied to this image.
+	 */
+	public void applyFilter(Filter filter) {
+		if (filter == null) throw createParameterNullException("filter");
+
+		if (filterBuffer == null) {
+			filterBuffer = new int[pixels.length];
+		}
+
+		beforeDrawing();
+		try {
+			filter.apply(pixels, image.getWidth(), image.getHeight(), xScale, yScale, filterBuffer);
+		}
+		finally {
+			markAllDirty();
 		}
 		afterDrawing();
 	}
@@ -775,10 +1086,100 @@ public class Image {
 		checkNaNAndInfinity(y, "y");
 
 		beforeDrawing();
-		TextFormat.drawText(g, x, y, text, textFormat);
+		drawTextInternal(x, y, text);
 		afterDrawing();
 	}
 
+	void drawTextInternal(double x, double y, String text) {
+		if (recorder != null) recorder.recordText(this, x, y, text);
+
+		if (canUseGlyphAtlas(text)) {
+			drawTextWithGlyphAtlas(x, y, text);
+		}
+		else {
+			markDirty(TextFormat.drawText(g, x, y, text, textFormat), 0);
+		}
+	}
+
+	/*
+		The section of the raster drawTextInternal changes with the current properties.
+	*/
+	Rectangle getTextDeviceBounds(double x, double y, String text) {
+		TextFormat.PlacedText placedText = canUseGlyphAtlas(text)
+			? placeTextWithGlyphAtlas(getGlyphAtlas(), x, y, text)
+			: TextFormat.placeText(g, x, y, text, textFormat);
+
+		return getDeviceBounds(placedText.getPaddedBounds(), 0);
+	}
+
+	private boolean canUseGlyphAtlas(String text) {
+		return textRenderer == TextRenderer.GLYPH_ATLAS
+			&& blendMode == BlendMode.NORMAL
+			&& transformation.isTranslation()
+			&& !textFormat.hasDecorations()
+			&& GlyphAtlas.canRender(text);
+	}
+
+	/**
+	 * Measures the text as it would be drawn by {@link #drawText(double, double, String)}
+	 * with the current text format and text renderer, without drawing it.
+	 * The measurement is in the coordinates of this image, the current transformation is not applied.
+	 * See {@link TextMetrics} for the meaning of the returned values.
+	 * @param text The text or string to be measured.
+	 * @return the size and position of the text and each of its lines.
+	 */
+	public TextMetrics measureText(String text) {
+		if (text == null) throw createParameterNullException("text");
+
+		if (canUseGlyphAtlas(text)) {
+			return new TextMetrics(placeTextWithGlyphAtlas(getGlyphAtlas(), 0, 0, text));
+		}
+		else {
+			return textFormat.measureText(g, text);
+		}
+	}
+
+	private GlyphAtlas getGlyphAtlas() {
+		return GlyphAtlas.get(textFormat.toFont(), xScale, yScale, isAntiAliased);
+	}
+
+	/*
+		The lines are aligned the same way as with the outline renderer, but measured by the advances of the glyphs in the atlas,
+		since measuring a line with kerning takes longer than drawing it from the atlas.
+	*/
+	private TextFormat.PlacedText placeTextWithGlyphAtlas(GlyphAtlas atlas, double x, double y, String text) {
+		String[] lines = TextLayoutCache.splitLines(text);
+		int[] widths = new int[lines.length];
+		for (int i = 0; i < lines.length; i++) {
+			widths[i] = (int)Math.round(atlas.getWidth(lines[i]) / xScale);
+		}
+
+		return TextFormat.placeText(g, x, y, lines, widths, textFormat);
+	}
+
+	private void drawTextWithGlyphAtlas(double x, double y, String text) {
+		GlyphAtlas atlas = getGlyphAtlas();
+		TextFormat.PlacedText placedText = placeTextWithGlyphAtlas(atlas, x, y, text);
+		String[] lines = placedText.lines;
+		int argb = getColorARGB();
+		Rectangle clip = rasterClip == null ? getRasterBounds() : rasterClip;
+
+		for (int i = 0; i < lines.length; i++) {
+			double penX = deviceTransform.getScaleX() * placedText.lineX[i] + deviceTransform.getTranslateX();
+			int baseline = (int)Math.round(deviceTransform.getScaleY() * placedText.lineY[i] + deviceTransform.getTranslateY());
+
+			for (int j = 0; j < lines[i].length(); j++) {
+				GlyphAtlas.Glyph glyph = atlas.getGlyph(lines[i].charAt(j));
+				if (glyph.mask != null) {
+					GlyphAtlas.blend(glyph, pixels, image.getWidth(), clip, (int)Math.round(penX) + glyph.left, baseline + glyph.top, argb, drawOver);
+				}
+				penX += glyph.advance;
+			}
+		}
+
+		markDirty(placedText.getPaddedBounds(), 0);
+	}
+
 	/**
 	 * Draws a point.
 	 * The size of the point can be changed through the {@link #setLineWidth(double)} method.
@@ -790,7 +1191,7 @@ public class Image {
 		checkNaNAndInfinity(centerY, "centerY");
 
 		beforeDrawing();
-		g.fill(Shapes.ellipse(centerX, centerY, lineWidth / 2, lineWidth / 2));
+		fillShape(Shapes.ellipse(centerX, centerY, lineWidth / 2, lineWidth / 2));
 		afterDrawing();
 	}
 
@@ -810,7 +1211,7 @@ public class Image {
 		checkNaNAndInfinity(endY, "endY");
 
 		beforeDrawing();
-		g.draw(Shapes.line(startX, startY, endX, endY));
+		drawShape(Shapes.line(startX, startY, endX, endY));
 		afterDrawing();
 	}
 
@@ -836,7 +1237,7 @@ public class Image {
 		checkNaNAndInfinity(endY, "endY");
 
 		beforeDrawing();
-		g.draw(Shapes.curve(startX, startY, controlX, controlY, endX, endY));
+		drawShape(Shapes.curve(startX, startY, controlX, controlY, endX, endY));
 		afterDrawing();
 	}
 
@@ -866,7 +1267,7 @@ public class Image {
 		checkNaNAndInfinity(endY, "endY");
 
 		beforeDrawing();
-		g.draw(Shapes.bezierCurve(startX, startY, control1X, control1Y, control2X, control2Y, endX, endY));
+		drawShape(Shapes.bezierCurve(startX, startY, control1X, control1Y, control2X, control2Y, endX, endY));
 		afterDrawing();
 	}
 
@@ -886,7 +1287,7 @@ public class Image {
 		checkNaNAndInfinity(sideLength, "sideLength");
 
 		beforeDrawing();
-		g.draw(Shapes.rectangle(x, y, sideLength, sideLength, corner, cornerRadius));
+		drawShape(Shapes.rectangle(x, y, sideLength, sideLength, corner, cornerRadius));
 		afterDrawing();
 	}
 
@@ -905,7 +1306,7 @@ public class Image {
 		checkNaNAndInfinity(sideLength, "sideLength");
 
 		beforeDrawing();
-		g.fill(Shapes.rectangle(x, y, sideLength, sideLength, corner, cornerRadius));
+		fillShape(Shapes.rectangle(x, y, sideLength, sideLength, corner, cornerRadius));
 		afterDrawing();
 	}
 
@@ -928,7 +1329,7 @@ public class Image {
 		checkNaNAndInfinity(height, "height");
 
 		beforeDrawing();
-		g.draw(Shapes.rectangle(x, y, width, height, corner, cornerRadius));
+		drawShape(Shapes.rectangle(x, y, width, height, corner, cornerRadius));
 		afterDrawing();
 	}
 
@@ -950,7 +1351,7 @@ public class Image {
 		checkNaNAndInfinity(height, "height");
 
 		beforeDrawing();
-		g.fill(Shapes.rectangle(x, y, width, height, corner, cornerRadius));
+		fillShape(Shapes.rectangle(x, y, width, height, corner, cornerRadius));
 		afterDrawing();
 	}
 
@@ -970,7 +1371,7 @@ public class Image {
 		checkNaNAndInfinity(radius, "radius");
 
 		beforeDrawing();
-		g.draw(Shapes.ellipse(centerX, centerY, radius, radius));
+		drawShape(Shapes.ellipse(centerX, centerY, radius, radius));
 		afterDrawing();
 	}
 
@@ -989,7 +1390,7 @@ public class Image {
 		checkNaNAndInfinity(radius, "radius");
 
 		beforeDrawing();
-		g.fill(Shapes.ellipse(centerX, centerY, radius, radius));
+		fillShape(Shapes.ellipse(centerX, centerY, radius, radius));
 		afterDrawing();
 	}
 
@@ -1012,7 +1413,7 @@ public class Image {
 		checkNaNAndInfinity(verticalRadius, "verticalRadius");
 
 		beforeDrawing();
-		g.draw(Shapes.ellipse(centerX, centerY, horizontalRadius, verticalRadius));
+		drawShape(Shapes.ellipse(centerX, centerY, horizontalRadius, verticalRadius));
 		afterDrawing();
 	}
 
@@ -1034,7 +1435,7 @@ public class Image {
 		checkNaNAndInfinity(verticalRadius, "verticalRadius");
 
 		beforeDrawing();
-		g.fill(Shapes.ellipse(centerX, centerY, horizontalRadius, verticalRadius));
+		fillShape(Shapes.ellipse(centerX, centerY, horizontalRadius, verticalRadius));
 		afterDrawing();
 	}
 
@@ -1065,7 +1466,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.draw(Shapes.arc(centerX, centerY, radius, radius, startRadians, sweepRadians));
+		drawShape(Shapes.arc(centerX, centerY, radius, radius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1100,7 +1501,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.draw(Shapes.arc(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
+		drawShape(Shapes.arc(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1131,7 +1532,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.draw(Shapes.pie(centerX, centerY, radius, radius, startRadians, sweepRadians));
+		drawShape(Shapes.pie(centerX, centerY, radius, radius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1166,7 +1567,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.draw(Shapes.pie(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
+		drawShape(Shapes.pie(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1194,7 +1595,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.fill(Shapes.pie(centerX, centerY, radius, radius, startRadians, sweepRadians));
+		fillShape(Shapes.pie(centerX, centerY, radius, radius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1226,7 +1627,7 @@ public class Image {
 		checkNaNAndInfinity(sweepRadians, "sweepRadians");
 
 		beforeDrawing();
-		g.fill(Shapes.pie(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
+		fillShape(Shapes.pie(centerX, centerY, horizontalRadius, verticalRadius, startRadians, sweepRadians));
 		afterDrawing();
 	}
 
@@ -1249,7 +1650,7 @@ public class Image {
 		checkNaNAndInfinity(y3, "y3");
 
 		beforeDrawing();
-		g.draw(Shapes.polygon(x1, y1, x2, y2, x3, y3));
+		drawShape(Shapes.polygon(x1, y1, x2, y2, x3, y3));
 		afterDrawing();
 	}
 
@@ -1271,7 +1672,7 @@ public class Image {
 		checkNaNAndInfinity(y3, "y3");
 
 		beforeDrawing();
-		g.fill(Shapes.polygon(x1, y1, x2, y2, x3, y3));
+		fillShape(Shapes.polygon(x1, y1, x2, y2, x3, y3));
 		afterDrawing();
 	}
 
@@ -1326,7 +1727,7 @@ public class Image {
 		checkNaNAndInfinity(vertices, "vertices");
 
 		beforeDrawing();
-		g.draw(Shapes.polygon(vertices));
+		drawShape(Shapes.polygon(vertices));
 		afterDrawing();
 	}
 
@@ -1385,7 +1786,301 @@ public class Image {
 		checkNaNAndInfinity(vertices, "vertices");
 
 		beforeDrawing();
-		g.fill(Shapes.polygon(vertices));
+		fillShape(Shapes.polygon(vertices));
+		afterDrawing();
+	}
+
+	/**
+	 * Draws many points at once, which is much faster than calling {@link #drawPoint(double, double)} for each point.
+	 * The size of the points can be changed through the {@link #setLineWidth(double)} method.
+	 * <pre>{@code
+	 * cd.drawPoints(new double[] { x1, y1, x2, y2, x3, y3 });
+	 * }</pre>
+	 * @param points Each pair of values is the center of one point, first the distance in pixel from the left side
+	 *               and then the distance in pixel from the top side of the canvas.
+	 */
+	public void drawPoints(double[] points) {
+		if (points == null) throw createParameterNullException("points");
+		if (points.length % 2 != 0) throw createBatchCountException("points", 2);
+
+		checkNaNAndInfinity(points, "points");
+
+		double radius = lineWidth / 2;
+		beforeDrawing();
+		for (int i = 0; i < points.length; i += 2) {
+			batchEllipse.setFrame(points[i] - radius, points[i + 1] - radius, lineWidth, lineWidth);
+			g.fill(batchEllipse);
+			if (recorder != null) recorder.recordShape(this, batchEllipse, true);
+		}
+		markBatchDirty(points, 2, 0, 1, 0, 1, radius);
+		afterDrawing();
+	}
+
+	/**
+	 * Draws many straight lines at once, which is much faster than calling {@link #drawLine(double, double, double, double)} for each line.
+	 * The line width can be changed through the {@link #setLineWidth(double)} method.
+	 * The corners can be changed with {@link #setCorner(Corner)}. For details see the {@link Corner} class.
+	 * <pre>{@code
+	 * cd.drawLines(new double[] { startX1, startY1, endX1, endY1, startX2, startY2, endX2, endY2 });
+	 * }</pre>
+	 * @param lines Each group of four values is one line, the start x and y coordinate followed by the end x and y coordinate.
+	 */
+	public void drawLines(double[] lines) {
+		if (lines == null) throw createParameterNullException("lines");
+		if (lines.length % 4 != 0) throw createBatchCountException("lines", 4);
+
+		checkNaNAndInfinity(lines, "lines");
+
+		beforeDrawing();
+		for (int i = 0; i < lines.length; i += 4) {
+			batchLine.setLine(lines[i], lines[i + 1], lines[i + 2], lines[i + 3]);
+			g.draw(batchLine);
+			if (recorder != null) recorder.recordShape(this, batchLine, false);
+		}
+		markBatchDirty(lines, 4, 0, 1, 2, 3, getStrokePadding());
+		afterDrawing();
+	}
+
+	/**
+	 * Draws the outlines of many circles at once, which is much faster than calling {@link #drawCircle(double, double, double)} for each circle.
+	 * The line width can be changed with {@link #setLineWidth(double)}.
+	 * All three arrays must have the same length, the circle i has the center (centerXs[i], centerYs[i]) and the radius radii[i].
+	 * @param centerXs The distances in pixel from the left side of the canvas to the centers of the circles.
+	 * @param centerYs The distances in pixel from the top side of the canvas to the centers of the circles.
+	 * @param radii The radii of the circles in pixel.
+	 */
+	public void drawCircles(double[] centerXs, double[] centerYs, double[] radii) {
+		checkCircles(centerXs, centerYs, radii);
+
+		beforeDrawing();
+		for (int i = 0; i < radii.length; i++) {
+			batchEllipse.setFrame(centerXs[i] - radii[i], centerYs[i] - radii[i], 2 * radii[i], 2 * radii[i]);
+			g.draw(batchEllipse);
+			if (recorder != null) recorder.recordShape(this, batchEllipse, false);
+		}
+		markCirclesDirty(centerXs, centerYs, radii, lineWidth);
+		afterDrawing();
+	}
+
+	/**
+	 * Draws many filled circles at once, which is much faster than calling {@link #fillCircle(double, double, double)} for each circle.
+	 * All three arrays must have the same length, the circle i has the center (centerXs[i], centerYs[i]) and the radius radii[i].
+	 * <pre>{@code
+	 * cd.fillCircles(particleXs, particleYs, particleSizes);
+	 * }</pre>
+	 * @param centerXs The distances in pixel from the left side of the canvas to the centers of the circles.
+	 * @param centerYs The distances in pixel from the top side of the canvas to the centers of the circles.
+	 * @param radii The radii of the circles in pixel.
+	 */
+	public void fillCircles(double[] centerXs, double[] centerYs, double[] radii) {
+		checkCircles(centerXs, centerYs, radii);
+
+		beforeDrawing();
+		for (int i = 0; i < radii.length; i++) {
+			batchEllipse.setFrame(centerXs[i] - radii[i], centerYs[i] - radii[i], 2 * radii[i], 2 * radii[i]);
+			g.fill(batchEllipse);
+			if (recorder != null) recorder.recordShape(this, batchEllipse, true);
+		}
+		markCirclesDirty(centerXs, centerYs, radii, 0);
+		afterDrawing();
+	}
+
+	/**
+	 * Draws the outlines of many rectangles at once, which is much faster than calling {@link #drawRectangle(double, double, double, double)} for each rectangle.
+	 * The line width can be changed with {@link #setLineWidth(double)}.
+	 * The corners can be changed with {@link #setCorner(Corner)}. For details see the {@link Corner} class.
+	 * @param rectangles Each group of four values is one rectangle, the x and y coordinate of the top left corner followed by its width and height.
+	 */
+	public void drawRectangles(double[] rectangles) {
+		checkRectangles(rectangles);
+
+		beforeDrawing();
+		for (int i = 0; i < rectangles.length; i += 4) {
+			Shape rectangle = getBatchRectangle(rectangles[i], rectangles[i + 1], rectangles[i + 2], rectangles[i + 3]);
+			g.draw(rectangle);
+			if (recorder != null) recorder.recordShape(this, rectangle, false);
+		}
+		markRectanglesDirty(rectangles, getStrokePadding());
+		afterDrawing();
+	}
+
+	/**
+	 * Draws many filled rectangles at once, which is much faster than calling {@link #fillRectangle(double, double, double, double)} for each rectangle.
+	 * The corners can be changed with {@link #setCorner(Corner)}. For details see the {@link Corner} class.
+	 * @param rectangles Each group of four values is one rectangle, the x and y coordinate of the top left corner followed by its width and height.
+	 */
+	public void fillRectangles(double[] rectangles) {
+		checkRectangles(rectangles);
+
+		beforeDrawing();
+		for (int i = 0; i < rectangles.length; i += 4) {
+			Shape rectangle = getBatchRectangle(rectangles[i], rectangles[i + 1], rectangles[i + 2], rectangles[i + 3]);
+			g.fill(rectangle);
+			if (recorder != null) recorder.recordShape(this, rectangle, true);
+		}
+		markRectanglesDirty(rectangles, 0);
+		afterDrawing();
+	}
+
+	/*
+		The batch methods reuse the same shape for every element, only beveled rectangles have to be created each time.
+	*/
+	private Shape getBatchRectangle(double x, double y, double width, double height) {
+		switch (corner) {
+			case SHARP:
+				batchRectangle.setRect(x, y, width, height);
+				return batchRectangle;
+			case ROUND:
+				batchRoundRectangle.setRoundRect(x, y, width, height, cornerRadius, cornerRadius);
+				return batchRoundRectangle;
+			default:
+				return Shapes.rectangle(x, y, width, height, corner, cornerRadius);
+		}
+	}
+
+	private static void checkCircles(double[] centerXs, double[] centerYs, double[] radii) {
+		if (centerXs == null) throw createParameterNullException("centerXs");
+		if (centerYs == null) throw createParameterNullException("centerYs");
+		if (radii == null) throw createParameterNullException("radii");
+		if (centerXs.length != radii.length || centerYs.length != radii.length) {
+			throw new IllegalArgumentException("The parameters centerXs, centerYs and radii must have the same length.");
+		}
+
+		checkNaNAndInfinity(centerXs, "centerXs");
+		checkNaNAndInfinity(centerYs, "centerYs");
+		checkNaNAndInfinity(radii, "radii");
+		checkNotNegative(radii, "radii", 0, 1);
+	}
+
+	private static void checkRectangles(double[] rectangles) {
+		if (rectangles == null) throw createParameterNullException("rectangles");
+		if (rectangles.length % 4 != 0) throw createBatchCountException("rectangles", 4);
+
+		checkNaNAndInfinity(rectangles, "rectangles");
+		checkNotNegative(rectangles, "rectangles", 2, 4);
+		checkNotNegative(rectangles, "rectangles", 3, 4);
+	}
+
+	/*
+		Instead of marking each shape as dirty, the bounds of all elements are combined and marked once.
+		Each element is a group of values in the array, the indices are the offsets of the corners within each group.
+	*/
+	private void markBatchDirty(double[] values, int groupSize, int x1, int y1, int x2, int y2, double padding) {
+		if (values.length == 0) return;
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < values.length; i += groupSize) {
+			minX = Math.min(minX, Math.min(values[i + x1], values[i + x2]));
+			minY = Math.min(minY, Math.min(values[i + y1], values[i + y2]));
+			maxX = Math.max(maxX, Math.max(values[i + x1], values[i + x2]));
+			maxY = Math.max(maxY, Math.max(values[i + y1], values[i + y2]));
+		}
+
+		markDirty(new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY), padding);
+	}
+
+	private void markCirclesDirty(double[] centerXs, double[] centerYs, double[] radii, double padding) {
+		if (radii.length == 0) return;
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < radii.length; i++) {
+			minX = Math.min(minX, centerXs[i] - radii[i]);
+			minY = Math.min(minY, centerYs[i] - radii[i]);
+			maxX = Math.max(maxX, centerXs[i] + radii[i]);
+			maxY = Math.max(maxY, centerYs[i] + radii[i]);
+		}
+
+		markDirty(new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY), padding);
+	}
+
+	private void markRectanglesDirty(double[] rectangles, double padding) {
+		if (rectangles.length == 0) return;
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < rectangles.length; i += 4) {
+			minX = Math.min(minX, rectangles[i]);
+			minY = Math.min(minY, rectangles[i + 1]);
+			maxX = Math.max(maxX, rectangles[i] + rectangles[i + 2]);
+			maxY = Math.max(maxY, rectangles[i + 1] + rectangles[i + 3]);
+		}
+
+		markDirty(new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY), padding);
+	}
+
+	/**
+	 * Starts recording all following draw calls into a {@link DisplayList}.
+	 * The draw calls are still drawn onto this image while they are recorded.
+	 * Call {@link #stopRecording()} to finish the recording and get the display list.
+	 * See {@link DisplayList} for which draw calls are recorded.
+	 */
+	public void startRecording() {
+		if (recorder != null) throw new IllegalStateException("This image is already recording. Call stopRecording before starting a new recording.");
+
+		recorder = new DisplayList.Recorder();
+	}
+
+	/**
+	 * Finishes a recording started with {@link #startRecording()}.
+	 * @return a display list containing all draw calls since the recording started.
+	 */
+	public DisplayList stopRecording() {
+		if (recorder == null) throw new IllegalStateException("This image is not recording. Call startRecording first.");
+
+		DisplayList result = recorder.toDisplayList();
+		recorder = null;
+		return result;
+	}
+
+	/**
+	 * Whether draw calls are currently recorded.
+	 * @return true between {@link #startRecording()} and {@link #stopRecording()}.
+	 */
+	public boolean isRecording() {
+		return recorder != null;
+	}
+
+	/**
+	 * Draws all draw calls recorded in the display list.
+	 * The current transformation of this image is applied after the recorded transformations.
+	 * The properties of this image, such as the color or line width, are not changed by this method.
+	 * See {@link DisplayList} for details.
+	 * @param displayList A display list created with {@link #stopRecording()}.
+	 */
+	public void drawDisplayList(DisplayList displayList) {
+		if (displayList == null) throw createParameterNullException("displayList");
+
+		beforeDrawing();
+		displayList.drawTo(this, transformation);
+		afterDrawing();
+	}
+
+	/**
+	 * Draws all draw calls recorded in the display list.
+	 * The transformation is applied after the recorded transformations instead of the current transformation of this image.
+	 * For example {@code Matrix2D.IDENTITY.translate(100, 0)} draws the display list 100 pixels further to the right.
+	 * The properties of this image, such as the color or line width, are not changed by this method.
+	 * See {@link DisplayList} for details.
+	 * @param displayList A display list created with {@link #stopRecording()}.
+	 * @param transformation The transformation applied to the whole display list.
+	 */
+	public void drawDisplayList(DisplayList displayList, Matrix2D transformation) {
+		if (displayList == null) throw createParameterNullException("displayList");
+		if (transformation == null) throw createParameterNullException("transformation");
+
+		beforeDrawing();
+		displayList.drawTo(this, transformation);
 		afterDrawing();
 	}
 
@@ -1402,7 +2097,7 @@ public class Image {
 		checkNaNAndInfinity(x, "x");
 		checkNaNAndInfinity(y, "y");
 
-		return new Path(this, g, x, y, true);
+		return new Path(this, x, y, true);
 	}
 
 	/**
@@ -1418,16 +2113,51 @@ public class Image {
 		checkNaNAndInfinity(x, "x");
 		checkNaNAndInfinity(y, "y");
 
-		return new Path(this, g, x, y, false);
+		return new Path(this, x, y, false);
 	}
 
 	private void drawImageInternal(double x, double y, double width, double height, java.awt.Image image, Interpolation interpolation) {
 		AWTRenderingHint.Interpolation.from(interpolation).applyTo(g);
 		g.drawImage(image, (int)x, (int)y, (int)width, (int)height, null);
+		markDirty(new Rectangle2D.Double((int)x, (int)y, (int)width, (int)height), 0);
 	}
 
-	private void drawImageInternal(double x, double y, double width, double height, Image image, Interpolation interpolation) {
-		drawImageInternal(x, y, width, height, image.image, interpolation);
+	void drawImageInternal(double x, double y, double width, double height, Image image, Interpolation interpolation) {
+		if (recorder != null) recorder.recordImage(this, x, y, width, height, image, interpolation);
+
+		if (!blendPixels(x, y, width, height, image)) {
+			drawImageInternal(x, y, width, height, image.image, interpolation);
+		}
+	}
+
+	/*
+		Blends the raster of the image directly into the raster of this image if the image is only moved by whole pixels.
+		Java2D would otherwise call the blend composite through its general and much slower compositing pipeline.
+	*/
+	private boolean blendPixels(double x, double y, double width, double height, Image image) {
+		if (blendMode == BlendMode.NORMAL || image == this || image.xScale != xScale || image.yScale != yScale) return false;
+		if ((int)width != image.width || (int)height != image.height || !transformation.isTranslation()) return false;
+
+		double deviceX = deviceTransform.getScaleX() * (int)x + deviceTransform.getTranslateX();
+		double deviceY = deviceTransform.getScaleY() * (int)y + deviceTransform.getTranslateY();
+		if (deviceX != Math.rint(deviceX) || deviceY != Math.rint(deviceY)) return false;
+
+		int left = (int)deviceX;
+		int top = (int)deviceY;
+		int sourceWidth = image.image.getWidth();
+		Rectangle target = new Rectangle(left, top, sourceWidth, image.image.getHeight())
+			.intersection(rasterClip != null ? rasterClip : new Rectangle(0, 0, this.image.getWidth(), this.image.getHeight()));
+		if (target.isEmpty()) return true;
+
+		BlendComposite composite = BlendComposite.get(blendMode);
+		int stride = this.image.getWidth();
+		for (int row = target.y; row < target.y + target.height; row++) {
+			int sourceOffset = (row - top) * sourceWidth + target.x - left;
+			composite.blendRow(image.pixels, sourceOffset, pixels, row * stride + target.x, target.width);
+		}
+
+		markRasterDirty(target.x, target.y, target.x + target.width, target.y + target.height);
+		return true;
 	}
 
 	/**
@@ -1510,19 +2240,47 @@ public class Image {
 
 		beforeDrawing();
 
-		clearInternal(color);
+		clearInternal(color.getRGB());
+
+		afterDrawing();
+	}
+
+	/**
+	 * Colors the whole canvas in the color given as a parameter.
+	 * The 8 most significant bits represent the alpha value, followed by 8 bits each for red, green and blue.
+	 * @param argb The color the canvas will be colored in as a packed ARGB integer.
+	 */
+	public void clear(int argb) {
+		beforeDrawing();
+
+		clearInternal(argb);
 
 		afterDrawing();
 	}
 
-	private void clearInternal(Color color) {
+	private void clearInternal(int argb) {
+		markAllDirty();
+
+		// An opaque color or a color that replaces the existing pixels does not depend on the previous content.
+		if (!drawOver || (argb >>> 24) == 0xFF) {
+			Arrays.fill(pixels, argb);
+			return;
+		}
+
+		// clearing is not a shape and is therefore not recorded
+		DisplayList.Recorder r = recorder;
 		Color c = getColor();
 		Matrix2D m = getTransformation();
+		BlendMode b = getBlendMode();
+		recorder = null;
 		setTransformationToIdentity();
-		setColor(color);
-		g.fill(Shapes.rectangle(0, 0, getWidth(), getHeight(), Corner.SHARP, 0));
+		setBlendMode(BlendMode.NORMAL);
+		setColorARGB(argb);
+		fillShape(Shapes.rectangle(0, 0, getWidth(), getHeight(), Corner.SHARP, 0));
 		setColor(c);
 		setTransformation(m);
+		setBlendMode(b);
+		recorder = r;
 	}
 
 	/**
@@ -1546,6 +2304,174 @@ public class Image {
 		target.setColor(c);
 	}
 
+	void drawShape(Shape shape) {
+		if (recorder != null) recorder.recordShape(this, shape, false);
+
+		g.draw(shape);
+		markDirty(shape.getBounds2D(), getStrokePadding());
+	}
+
+	// A miter join can reach up to half the miter limit (10) times the line width past the outline of the shape.
+	private double getStrokePadding() {
+		return corner == Corner.SHARP ? 5 * lineWidth : lineWidth;
+	}
+
+	void fillShape(Shape shape) {
+		if (recorder != null) recorder.recordShape(this, shape, true);
+
+		g.fill(shape);
+		markDirty(shape.getBounds2D(), 0);
+	}
+
+	/*
+		Adds the bounds, given in the coordinates of the current transformation, to the dirty region.
+		One extra pixel on each side accounts for anti-aliasing and stroke normalization.
+	*/
+	private void markDirty(Rectangle2D bounds, double padding) {
+		Rectangle raster = getDeviceBounds(bounds, padding);
+		markRasterDirty(raster.x, raster.y, raster.x + raster.width, raster.y + raster.height);
+	}
+
+	/*
+		The section of the raster that can be changed by drawing something with these bounds, given in the coordinates of the current transformation.
+	*/
+	private Rectangle getDeviceBounds(Rectangle2D bounds, double padding) {
+		double[] c = dirtyCorners;
+		c[0] = c[4] = bounds.getMinX() - padding;
+		c[2] = c[6] = bounds.getMaxX() + padding;
+		c[1] = c[3] = bounds.getMinY() - padding;
+		c[5] = c[7] = bounds.getMaxY() + padding;
+		deviceTransform.transform(c, 0, c, 0, 4);
+
+		double minX = Math.min(Math.min(c[0], c[2]), Math.min(c[4], c[6]));
+		double maxX = Math.max(Math.max(c[0], c[2]), Math.max(c[4], c[6]));
+		double minY = Math.min(Math.min(c[1], c[3]), Math.min(c[5], c[7]));
+		double maxY = Math.max(Math.max(c[1], c[3]), Math.max(c[5], c[7]));
+
+		int x1 = (int)Math.max(0, Math.floor(minX) - 1);
+		int y1 = (int)Math.max(0, Math.floor(minY) - 1);
+		int x2 = (int)Math.min(image.getWidth(), Math.ceil(maxX) + 1);
+		int y2 = (int)Math.min(image.getHeight(), Math.ceil(maxY) + 1);
+		return new Rectangle(x1, y1, Math.max(0, x2 - x1), Math.max(0, y2 - y1));
+	}
+
+	Rectangle getDeviceBounds(Shape shape, boolean fill) {
+		return getDeviceBounds(shape.getBounds2D(), fill ? 0 : getStrokePadding());
+	}
+
+	private void markPixelsDirty(int x, int y, int width, int height) {
+		markRasterDirty(x * xScale, y * yScale, (x + width) * xScale, (y + height) * yScale);
+	}
+
+	private void markAllDirty() {
+		markRasterDirty(0, 0, image.getWidth(), image.getHeight());
+	}
+
+	private void markRasterDirty(int x1, int y1, int x2, int y2) {
+		if (x1 < x2 && y1 < y2) {
+			dirtyRegion.add(new Rectangle(x1, y1, x2 - x1, y2 - y1));
+		}
+	}
+
+	/*
+		Returns the section of the raster that has been modified since the last call and resets the dirty region.
+		The section is in raster coordinates, use toImageBounds to convert it to the coordinates of this image.
+	*/
+	Rectangle takeDirtyRegion() {
+		Rectangle result = dirtyRegion.isEmpty() ? new Rectangle() : new Rectangle(dirtyRegion);
+		dirtyRegion.setBounds(0, 0, -1, -1);
+		return result;
+	}
+
+	Rectangle getRasterBounds() {
+		return new Rectangle(0, 0, image.getWidth(), image.getHeight());
+	}
+
+	Rectangle toImageBounds(Rectangle raster) {
+		int x1 = raster.x / xScale;
+		int y1 = raster.y / yScale;
+		int x2 = (raster.x + raster.width + xScale - 1) / xScale;
+		int y2 = (raster.y + raster.height + yScale - 1) / yScale;
+		return new Rectangle(x1, y1, x2 - x1, y2 - y1);
+	}
+
+	Rectangle toRasterBounds(Rectangle bounds) {
+		return new Rectangle(bounds.x * xScale, bounds.y * yScale, bounds.width * xScale, bounds.height * yScale);
+	}
+
+	/*
+		Draws the region of the raster onto the target without any scaling. Transparent pixels are drawn over white,
+		the same way as in copyTo, so the target does not have to support transparency.
+	*/
+	void drawRasterTo(Graphics2D target, Rectangle raster) {
+		int x2 = raster.x + raster.width;
+		int y2 = raster.y + raster.height;
+		target.setComposite(AlphaComposite.Src);
+		target.drawImage(image, raster.x, raster.y, x2, y2, raster.x, raster.y, x2, y2, Palette.WHITE, null);
+	}
+
+	Image createTile(Rectangle rasterClip) {
+		return new Image(this, rasterClip);
+	}
+
+	/*
+		Marks the pixels changed by the tile as dirty and releases its graphics object. The tile cannot be used afterwards.
+	*/
+	void mergeTile(Image tile) {
+		Rectangle changed = tile.takeDirtyRegion().intersection(tile.rasterClip);
+		markRasterDirty(changed.x, changed.y, changed.x + changed.width, changed.y + changed.height);
+		tile.g.dispose();
+	}
+
+	/*
+		A transparent image with the same size and DPI scaling, used to cache display lists.
+	*/
+	Image createLayer() {
+		return new Image(width, height, xScale, yScale, Palette.TRANSPARENT);
+	}
+
+	boolean isCompatibleLayer(Image layer) {
+		return layer.width == width && layer.height == height && layer.xScale == xScale && layer.yScale == yScale;
+	}
+
+	/*
+		Draws the region of the layer over the same region of this image. The region is in raster coordinates.
+	*/
+	void drawLayer(Image layer, Rectangle raster) {
+		if (raster.isEmpty()) return;
+
+		Composite composite = g.getComposite();
+		g.setTransform(IDENTITY);
+		g.setComposite(AlphaComposite.SrcOver);
+		g.drawImage(
+			layer.image,
+			raster.x, raster.y, raster.x + raster.width, raster.y + raster.height,
+			raster.x, raster.y, raster.x + raster.width, raster.y + raster.height,
+			null
+		);
+		g.setComposite(composite);
+		g.setTransform(deviceTransform);
+		markRasterDirty(raster.x, raster.y, raster.x + raster.width, raster.y + raster.height);
+	}
+
+	/*
+		Replaces the pixels of the target inside the region, given in raster coordinates, with the pixels of this image.
+		If both images have the same resolution the raster is copied directly, which is much faster than drawing.
+		Otherwise the whole image is redrawn.
+	*/
+	void copyPixelsTo(Image target, Rectangle region) {
+		if (image.getWidth() == target.image.getWidth() && image.getHeight() == target.image.getHeight()) {
+			int stride = image.getWidth();
+			for (int y = region.y; y < region.y + region.height; y++) {
+				System.arraycopy(pixels, y * stride + region.x, target.pixels, y * stride + region.x, region.width);
+			}
+		}
+		else {
+			target.clear();
+			target.drawImage(0, 0, this);
+		}
+	}
+
 	/**
 	 * Creates a copy of this image in the form of a {@link BufferedImage}.
 	 * @param type Defines the way the image is encoded in memory.
@@ -1603,6 +2529,18 @@ public class Image {
 		return (polygonParameter.length & 1) == 1;
 	}
 
+	private static IllegalArgumentException createBatchCountException(String parameterName, int groupSize) {
+		return new IllegalArgumentException("The length of the parameter " + parameterName + " must be a multiple of " + groupSize + ".");
+	}
+
+	private static void checkNotNegative(double[] parameters, String parameterName, int offset, int groupSize) {
+		for (int i = offset; i < parameters.length; i += groupSize) {
+			if (parameters[i] < 0) {
+				throw new IllegalArgumentException("The parameter list '" + parameterName + "' contains a negative value at position " + i + ".");
+			}
+		}
+	}
+
 	private static IllegalArgumentException createPolygonCountException(String methodName) {
 		return new IllegalArgumentException(methodName + " must be called with an even number of arguments. Each argument pair represents the x and y coordinate of one point of the polygon.");
 	}
@@ -203,6 +203,10 @@ public enum Key {
 		this.keyCode = keyCode;
 	}
 
+	int getKeyCode() {
+		return keyCode;
+	}
+
 	static Key getKeyFromKeyCode(int keyCode) {
 		for (Key k : Key.values()) {
 			if (k.keyCode == keyCode) {
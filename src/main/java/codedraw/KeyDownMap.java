@@ -4,17 +4,17 @@ import java.awt.event.KeyEvent;
 import java.util.HashMap;
 
 class KeyDownMap {
-	public KeyDownMap(EventScanner eventScanner, CanvasPanel panel) {
+	public KeyDownMap(EventScanner eventScanner, Runnable copyCanvasToClipboard) {
 		this.eventScanner = eventScanner;
-		this.panel = panel;
+		this.copyCanvasToClipboard = copyCanvasToClipboard;
 	}
 
-	private final CanvasPanel panel;
+	private final Runnable copyCanvasToClipboard;
 	private final EventScanner eventScanner;
 	private final HashMap<Integer, Boolean> map = new HashMap<>();
 
 	public void keyPress(KeyEvent keyEvent) {
-		Integer keyCode = keyEvent.getExtendedKeyCode();
+		Integer keyCode = getUniqueKeyCode(keyEvent);
 
 		if (!isKeyAlreadyPressed(keyCode)) {
 			map.put(keyCode, true);
@@ -26,12 +26,18 @@ class KeyDownMap {
 
 	private void checkForCopyCanvas(KeyDownEvent a) {
 		if (a.getKey() == Key.C && a.isControlDown()) {
-			panel.copyCanvasToClipboard();
+			copyCanvasToClipboard.run();
 		}
 	}
 
 	public void keyRelease(KeyEvent keyEvent) {
-		map.put(keyEvent.getExtendedKeyCode(), false);
+		map.put(getUniqueKeyCode(keyEvent), false);
+	}
+
+	// synthetic key events, like the ones created by HeadlessCodeDraw, do not have an extended key code
+	private static int getUniqueKeyCode(KeyEvent keyEvent) {
+		int extendedKeyCode = keyEvent.getExtendedKeyCode();
+		return extendedKeyCode != KeyEvent.VK_UNDEFINED ? extendedKeyCode : keyEvent.getKeyCode();
 	}
 
 	private boolean isKeyAlreadyPressed(Integer extendedKeyCode) {
@@ -1,7 +1,6 @@
 package codedraw;
 
 import java.awt.geom.AffineTransform;
-import java.util.Arrays;
 
 /**
  * This class is used to transform the input coordinates.
@@ -37,11 +36,11 @@ public class Matrix2D {
 	 */
 	public static Matrix2D fromRowMajor(double[][] matrix) {
 		throwIfInvalidMatrix(matrix);
-		return new Matrix2D(new double[][] {
-				{ matrix[0][0], matrix[0][1], matrix[0][2] },
-				{ matrix[1][0], matrix[1][1], matrix[1][2] },
-				{ matrix[2][0], matrix[2][1], matrix[2][2] },
-		});
+		return new Matrix2D(
+				matrix[0][0], matrix[0][1], matrix[0][2],
+				matrix[1][0], matrix[1][1], matrix[1][2],
+				matrix[2][0], matrix[2][1], matrix[2][2]
+		);
 	}
 
 	/**
@@ -52,11 +51,11 @@ public class Matrix2D {
 	 */
 	public static Matrix2D fromColumnMajor(double[][] matrix) {
 		throwIfInvalidMatrix(matrix);
-		return new Matrix2D(new double[][] {
-				{ matrix[0][0], matrix[1][0], matrix[2][0] },
-				{ matrix[0][1], matrix[1][1], matrix[2][1] },
-				{ matrix[0][2], matrix[1][2], matrix[2][2] },
-		});
+		return new Matrix2D(
+				matrix[0][0], matrix[1][0], matrix[2][0],
+				matrix[0][1], matrix[1][1], matrix[2][1],
+				matrix[0][2], matrix[1][2], matrix[2][2]
+		);
 	}
 
 	/**
@@ -65,11 +64,11 @@ public class Matrix2D {
 	 * @return the matrix.
 	 */
 	public static Matrix2D fromRowMajor(double r0c0, double r0c1, double r0c2, double r1c0, double r1c1, double r1c2, double r2c0, double r2c1, double r2c2) {
-		return new Matrix2D(new double[][] {
-				{ r0c0, r0c1, r0c2 },
-				{ r1c0, r1c1, r1c2 },
-				{ r2c0, r2c1, r2c2 }
-		});
+		return new Matrix2D(
+				r0c0, r0c1, r0c2,
+				r1c0, r1c1, r1c2,
+				r2c0, r2c1, r2c2
+		);
 	}
 
 	/**
@@ -78,11 +77,11 @@ public class Matrix2D {
 	 * @return the matrix.
 	 */
 	public static Matrix2D fromColumnMajor(double r0c0, double r1c0, double r2c0, double r0c1, double r1c1, double r2c1, double r0c2, double r1c2, double r2c2) {
-		return new Matrix2D(new double[][] {
-				{ r0c0, r0c1, r0c2 },
-				{ r1c0, r1c1, r1c2 },
-				{ r2c0, r2c1, r2c2 }
-		});
+		return new Matrix2D(
+				r0c0, r0c1, r0c2,
+				r1c0, r1c1, r1c2,
+				r2c0, r2c1, r2c2
+		);
 	}
 
 	private static void throwIfInvalidMatrix(double[][] matrix) {
@@ -96,14 +95,28 @@ public class Matrix2D {
 	}
 
 	/**
-	 * Creates a new row major matrix from a 3x3 double array.
-	 * @param matrix A 3x3 double array.
+	 * Creates a new matrix from its values in row major order.
 	 */
-	private Matrix2D(double[][] matrix) {
-		this.matrix = matrix;
-	}
-
-	private final double[][] matrix;
+	private Matrix2D(double m00, double m01, double m02, double m10, double m11, double m12, double m20, double m21, double m22) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m02 = m02;
+		this.m10 = m10;
+		this.m11 = m11;
+		this.m12 = m12;
+		this.m20 = m20;
+		this.m21 = m21;
+		this.m22 = m22;
+	}
+
+	/*
+		The values are stored in individual fields instead of an array, which avoids allocating arrays
+		and bounds checks for every operation. The last row is kept because matrices are not required to be affine,
+		even though all the transformations below keep it unchanged.
+	*/
+	private final double m00, m01, m02;
+	private final double m10, m11, m12;
+	private final double m20, m21, m22;
 
 	/**
 	 * Gets a value from this matrix.
@@ -115,7 +128,17 @@ public class Matrix2D {
 		if (row < 0 || 3 <= row) throw new IllegalArgumentException("Row index can only be 0, 1 or 2.");
 		if (column < 0 || 3 <= column) throw new IllegalArgumentException("Column index can only be 0, 1 or 2.");
 
-		return matrix[row][column];
+		switch (row * 3 + column) {
+			case 0: return m00;
+			case 1: return m01;
+			case 2: return m02;
+			case 3: return m10;
+			case 4: return m11;
+			case 5: return m12;
+			case 6: return m20;
+			case 7: return m21;
+			default: return m22;
+		}
 	}
 
 	/**
@@ -129,9 +152,12 @@ public class Matrix2D {
 		if (row < 0 || 3 <= row) throw new IllegalArgumentException("Row index can only be 0, 1 or 2.");
 		if (column < 0 || 3 <= column) throw new IllegalArgumentException("Column index can only be 0, 1 or 2.");
 
-		Matrix2D result = fromRowMajor(matrix);
-		result.matrix[row][column] = value;
-		return result;
+		int index = row * 3 + column;
+		return new Matrix2D(
+				index == 0 ? value : m00, index == 1 ? value : m01, index == 2 ? value : m02,
+				index == 3 ? value : m10, index == 4 ? value : m11, index == 5 ? value : m12,
+				index == 6 ? value : m20, index == 7 ? value : m21, index == 8 ? value : m22
+		);
 	}
 
 	/**
@@ -140,7 +166,24 @@ public class Matrix2D {
 	 * @return The inverse of this matrix.
 	 */
 	public Matrix2D inverse() {
-		return adjunct().divide(determinant());
+		// adjugate matrix, the transposed matrix of cofactors
+		double a00 = m11 * m22 - m21 * m12;
+		double a01 = m21 * m02 - m01 * m22;
+		double a02 = m01 * m12 - m11 * m02;
+		double a10 = m20 * m12 - m10 * m22;
+		double a11 = m00 * m22 - m20 * m02;
+		double a12 = m10 * m02 - m00 * m12;
+		double a20 = m10 * m21 - m20 * m11;
+		double a21 = m20 * m01 - m00 * m21;
+		double a22 = m00 * m11 - m10 * m01;
+
+		double determinant = determinant();
+
+		return new Matrix2D(
+				a00 / determinant, a01 / determinant, a02 / determinant,
+				a10 / determinant, a11 / determinant, a12 / determinant,
+				a20 / determinant, a21 / determinant, a22 / determinant
+		);
 	}
 
 	/**
@@ -150,11 +193,11 @@ public class Matrix2D {
 	 * @return A new matrix with the translated coordinate system.
 	 */
 	public Matrix2D translate(double tx, double ty) {
-		return fromRowMajor(
-			1, 0, tx,
-			0, 1, ty,
-			0, 0, 1
-		).multiply(this);
+		return new Matrix2D(
+				m00 + tx * m20, m01 + tx * m21, m02 + tx * m22,
+				m10 + ty * m20, m11 + ty * m21, m12 + ty * m22,
+				m20, m21, m22
+		);
 	}
 
 	/**
@@ -163,11 +206,13 @@ public class Matrix2D {
 	 * @return The rotated matrix.
 	 */
 	public Matrix2D rotate(double angleRadians) {
-		return fromRowMajor(
-			Math.cos(angleRadians), -Math.sin(angleRadians), 0,
-			Math.sin(angleRadians), Math.cos(angleRadians), 0,
-			0, 0, 1
-		).multiply(this);
+		double cos = Math.cos(angleRadians);
+		double sin = Math.sin(angleRadians);
+
+		return applyAffine(
+				cos, -sin, 0,
+				sin, cos, 0
+		);
 	}
 
 	/**
@@ -178,7 +223,13 @@ public class Matrix2D {
 	 * @return The rotated matrix.
 	 */
 	public Matrix2D rotateAt(double x, double y, double radians) {
-		return translate(-x, -y).rotate(radians).translate(x, y);
+		double cos = Math.cos(radians);
+		double sin = Math.sin(radians);
+
+		return applyAffine(
+				cos, -sin, x - cos * x + sin * y,
+				sin, cos, y - sin * x - cos * y
+		);
 	}
 
 	/**
@@ -188,11 +239,11 @@ public class Matrix2D {
 	 * @return A new matrix with the scaled coordinate system.
 	 */
 	public Matrix2D scale(double xScale, double yScale) {
-		return fromRowMajor(
-			xScale, 0, 0,
-			0, yScale, 0,
-			0, 0, 1
-		).multiply(this);
+		return new Matrix2D(
+				xScale * m00, xScale * m01, xScale * m02,
+				yScale * m10, yScale * m11, yScale * m12,
+				m20, m21, m22
+		);
 	}
 
 	/**
@@ -204,7 +255,10 @@ public class Matrix2D {
 	 * @return A new matrix with the scaled coordinate system.
 	 */
 	public Matrix2D scaleAt(double x, double y, double scaleX, double scaleY) {
-		return translate(-x, -y).scale(scaleX, scaleY).translate(x, y);
+		return applyAffine(
+				scaleX, 0, x - scaleX * x,
+				0, scaleY, y - scaleY * y
+		);
 	}
 
 	/**
@@ -214,11 +268,10 @@ public class Matrix2D {
 	 * @return A new matrix with the sheared coordinate system.
 	 */
 	public Matrix2D shear(double shearX, double shearY) {
-		return fromRowMajor(
-			1, shearX, 0,
-			shearY, 1, 0,
-			0, 0, 1
-		).multiply(this);
+		return applyAffine(
+				1, shearX, 0,
+				shearY, 1, 0
+		);
 	}
 
 	/**
@@ -230,7 +283,10 @@ public class Matrix2D {
 	 * @return A new matrix with the sheared coordinate system.
 	 */
 	public Matrix2D shearAt(double x, double y, double shearX, double shearY) {
-		return translate(-x, -y).shear(shearX, shearY).translate(x, y);
+		return applyAffine(
+				1, shearX, -shearX * y,
+				shearY, 1, -shearY * x
+		);
 	}
 
 	/**
@@ -257,6 +313,21 @@ public class Matrix2D {
 		return translate(-x, -y).mirror(angleRadians).translate(x, y);
 	}
 
+	/*
+		Calculates A * this, where A is the affine matrix
+		a00 a01 a02
+		a10 a11 a12
+		0   0   1
+		without creating A. Every transformation above is applied this way.
+	*/
+	private Matrix2D applyAffine(double a00, double a01, double a02, double a10, double a11, double a12) {
+		return new Matrix2D(
+				a00 * m00 + a01 * m10 + a02 * m20, a00 * m01 + a01 * m11 + a02 * m21, a00 * m02 + a01 * m12 + a02 * m22,
+				a10 * m00 + a11 * m10 + a12 * m20, a10 * m01 + a11 * m11 + a12 * m21, a10 * m02 + a11 * m12 + a12 * m22,
+				m20, m21, m22
+		);
+	}
+
 	/**
 	 * Multiplies two matrices with each other.
 	 * This multiply method works the same as normal matrix multiplication.
@@ -265,20 +336,13 @@ public class Matrix2D {
 	 * @return The multiplied matrix as the result.
 	 */
 	public Matrix2D multiply(Matrix2D other) {
-		double[][] a = this.matrix;
-		double[][] b = other.matrix;
-
-		double[][] result = new double[3][3];
-
-		for (int r = 0; r < 3; r++) {
-			for (int c = 0; c < 3; c++) {
-				for (int i = 0; i < 3; i++) {
-					result[r][c] += a[r][i] * b[i][c];
-				}
-			}
-		}
+		Matrix2D b = other;
 
-		return new Matrix2D(result);
+		return new Matrix2D(
+				m00 * b.m00 + m01 * b.m10 + m02 * b.m20, m00 * b.m01 + m01 * b.m11 + m02 * b.m21, m00 * b.m02 + m01 * b.m12 + m02 * b.m22,
+				m10 * b.m00 + m11 * b.m10 + m12 * b.m20, m10 * b.m01 + m11 * b.m11 + m12 * b.m21, m10 * b.m02 + m11 * b.m12 + m12 * b.m22,
+				m20 * b.m00 + m21 * b.m10 + m22 * b.m20, m20 * b.m01 + m21 * b.m11 + m22 * b.m21, m20 * b.m02 + m21 * b.m12 + m22 * b.m22
+		);
 	}
 
 	/**
@@ -302,17 +366,153 @@ public class Matrix2D {
 	 */
 	public Point2D multiply(double x, double y) {
 		return new Point2D(
-			get(0, 0) * x + get(0, 1) * y + get(0, 2),
-			get(1, 0) * x + get(1, 1) * y + get(1, 2)
+			m00 * x + m01 * y + m02,
+			m10 * x + m11 * y + m12
 		);
 	}
 
+	/**
+	 * Transforms many points at once according to this matrix and writes them into the destination array.
+	 * Unlike {@link #multiply(double, double)} no {@link Point2D} objects are created,
+	 * which makes this method well suited for transforming thousands of points per frame.
+	 * The points are stored as pairs of x and y coordinates: src[srcOffset], src[srcOffset + 1] is the first point,
+	 * src[srcOffset + 2], src[srcOffset + 3] is the second point and so on.
+	 * The source and destination may be the same array, even if the sections overlap.
+	 * <pre>{@code
+	 * double[] vertices = { 0, 0, 100, 0, 100, 100 };
+	 * double[] result = new double[vertices.length];
+	 * matrix.transform(vertices, 0, result, 0, 3);
+	 * }</pre>
+	 * @param src The coordinates of the points that are transformed.
+	 * @param srcOffset The index of the x coordinate of the first point in src.
+	 * @param dst The array the transformed coordinates are written to.
+	 * @param dstOffset The index in dst where the x coordinate of the first transformed point is written to.
+	 * @param count The number of points, each point consists of two values.
+	 */
+	public void transform(double[] src, int srcOffset, double[] dst, int dstOffset, int count) {
+		checkSection(src, "src", src == null ? 0 : src.length, srcOffset, count, 2);
+		checkSection(dst, "dst", dst == null ? 0 : dst.length, dstOffset, count, 2);
+
+		if (src == dst && srcOffset < dstOffset) {
+			// the points are transformed back to front so that no point is overwritten before it was read
+			for (int i = 2 * count - 2; i >= 0; i -= 2) {
+				double x = src[srcOffset + i];
+				double y = src[srcOffset + i + 1];
+				dst[dstOffset + i] = m00 * x + m01 * y + m02;
+				dst[dstOffset + i + 1] = m10 * x + m11 * y + m12;
+			}
+		}
+		else {
+			for (int i = 0; i < 2 * count; i += 2) {
+				double x = src[srcOffset + i];
+				double y = src[srcOffset + i + 1];
+				dst[dstOffset + i] = m00 * x + m01 * y + m02;
+				dst[dstOffset + i + 1] = m10 * x + m11 * y + m12;
+			}
+		}
+	}
+
+	/**
+	 * Transforms many points at once according to this matrix and writes them into the destination array.
+	 * Works the same as {@link #transform(double[], int, double[], int, int)} but with float coordinates.
+	 * The calculations are done with double precision.
+	 * @param src The coordinates of the points that are transformed.
+	 * @param srcOffset The index of the x coordinate of the first point in src.
+	 * @param dst The array the transformed coordinates are written to.
+	 * @param dstOffset The index in dst where the x coordinate of the first transformed point is written to.
+	 * @param count The number of points, each point consists of two values.
+	 */
+	public void transform(float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+		checkSection(src, "src", src == null ? 0 : src.length, srcOffset, count, 2);
+		checkSection(dst, "dst", dst == null ? 0 : dst.length, dstOffset, count, 2);
+
+		if (src == dst && srcOffset < dstOffset) {
+			// the points are transformed back to front so that no point is overwritten before it was read
+			for (int i = 2 * count - 2; i >= 0; i -= 2) {
+				double x = src[srcOffset + i];
+				double y = src[srcOffset + i + 1];
+				dst[dstOffset + i] = (float)(m00 * x + m01 * y + m02);
+				dst[dstOffset + i + 1] = (float)(m10 * x + m11 * y + m12);
+			}
+		}
+		else {
+			for (int i = 0; i < 2 * count; i += 2) {
+				double x = src[srcOffset + i];
+				double y = src[srcOffset + i + 1];
+				dst[dstOffset + i] = (float)(m00 * x + m01 * y + m02);
+				dst[dstOffset + i + 1] = (float)(m10 * x + m11 * y + m12);
+			}
+		}
+	}
+
+	/**
+	 * Transforms many points at once according to this matrix and writes them into the destination arrays.
+	 * In contrast to {@link #transform(double[], int, double[], int, int)} the x and y coordinates are stored in separate arrays,
+	 * the point i consists of srcX[srcOffset + i] and srcY[srcOffset + i].
+	 * Storing the coordinates this way allows the JVM to process multiple points with a single instruction.
+	 * The source and destination may be the same arrays, even if the sections overlap.
+	 * @param srcX The x coordinates of the points that are transformed.
+	 * @param srcY The y coordinates of the points that are transformed.
+	 * @param srcOffset The index of the first point in srcX and srcY.
+	 * @param dstX The array the transformed x coordinates are written to.
+	 * @param dstY The array the transformed y coordinates are written to.
+	 * @param dstOffset The index in dstX and dstY where the first transformed point is written to.
+	 * @param count The number of points.
+	 */
+	public void transform(double[] srcX, double[] srcY, int srcOffset, double[] dstX, double[] dstY, int dstOffset, int count) {
+		checkSection(srcX, "srcX", srcX == null ? 0 : srcX.length, srcOffset, count, 1);
+		checkSection(srcY, "srcY", srcY == null ? 0 : srcY.length, srcOffset, count, 1);
+		checkSection(dstX, "dstX", dstX == null ? 0 : dstX.length, dstOffset, count, 1);
+		checkSection(dstY, "dstY", dstY == null ? 0 : dstY.length, dstOffset, count, 1);
+
+		boolean isAliased = srcX == dstX || srcY == dstY || srcX == dstY || srcY == dstX;
+
+		if (!isAliased) {
+			// the source is never written, which allows calculating both coordinates in separate loops that the JIT can vectorize
+			for (int i = 0; i < count; i++) {
+				dstX[dstOffset + i] = m00 * srcX[srcOffset + i] + m01 * srcY[srcOffset + i] + m02;
+			}
+			for (int i = 0; i < count; i++) {
+				dstY[dstOffset + i] = m10 * srcX[srcOffset + i] + m11 * srcY[srcOffset + i] + m12;
+			}
+		}
+		else if (srcOffset < dstOffset) {
+			// the points are transformed back to front so that no point is overwritten before it was read
+			for (int i = count - 1; i >= 0; i--) {
+				transformPoint(srcX, srcY, srcOffset + i, dstX, dstY, dstOffset + i);
+			}
+		}
+		else {
+			for (int i = 0; i < count; i++) {
+				transformPoint(srcX, srcY, srcOffset + i, dstX, dstY, dstOffset + i);
+			}
+		}
+	}
+
+	private void transformPoint(double[] srcX, double[] srcY, int srcIndex, double[] dstX, double[] dstY, int dstIndex) {
+		double x = srcX[srcIndex];
+		double y = srcY[srcIndex];
+		dstX[dstIndex] = m00 * x + m01 * y + m02;
+		dstY[dstIndex] = m10 * x + m11 * y + m12;
+	}
+
+	private static void checkSection(Object array, String parameterName, int length, int offset, int count, int valuesPerPoint) {
+		if (array == null) throw new IllegalArgumentException("The parameter " + parameterName + " cannot be null.");
+		if (count < 0) throw new IllegalArgumentException("The parameter count must be equal to or greater than zero.");
+		if (offset < 0 || (long)offset + (long)count * valuesPerPoint > length) {
+			throw new IllegalArgumentException("The points starting at offset " + offset + " do not fit into " + parameterName + " with a length of " + length + ".");
+		}
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
 		if (o == null || getClass() != o.getClass()) return false;
-		Matrix2D matrix2D = (Matrix2D) o;
-		return Arrays.deepEquals(matrix, matrix2D.matrix);
+		Matrix2D other = (Matrix2D) o;
+		return
+				Double.compare(m00, other.m00) == 0 && Double.compare(m01, other.m01) == 0 && Double.compare(m02, other.m02) == 0 &&
+				Double.compare(m10, other.m10) == 0 && Double.compare(m11, other.m11) == 0 && Double.compare(m12, other.m12) == 0 &&
+				Double.compare(m20, other.m20) == 0 && Double.compare(m21, other.m21) == 0 && Double.compare(m22, other.m22) == 0;
 	}
 
 	/**
@@ -328,132 +528,62 @@ public class Matrix2D {
 	 * @return Whether these two matrices are the same within some error.
 	 */
 	public boolean equals(Matrix2D other, double error) {
-		return this.minus(other).absolute().allLessThanOrEqual(error);
+		return
+				isWithin(m00, other.m00, error) && isWithin(m01, other.m01, error) && isWithin(m02, other.m02, error) &&
+				isWithin(m10, other.m10, error) && isWithin(m11, other.m11, error) && isWithin(m12, other.m12, error) &&
+				isWithin(m20, other.m20, error) && isWithin(m21, other.m21, error) && isWithin(m22, other.m22, error);
 	}
 
-	@Override
-	public int hashCode() {
-		return Arrays.deepHashCode(matrix);
+	private static boolean isWithin(double a, double b, double error) {
+		return !(Math.abs(a - b) > error);
 	}
 
 	@Override
-	public String toString() {
-		return Arrays.deepToString(matrix);
-	}
-
-	private Matrix2D minus(Matrix2D other) {
-		double[][] a = this.matrix;
-		double[][] b = other.matrix;
-
-		double[][] result = new double[3][3];
-
-		for (int r = 0; r < 3; r++) {
-			for (int c = 0; c < 3; c++) {
-				result[r][c] = a[r][c] - b[r][c];
-			}
-		}
-
-		return new Matrix2D(result);
-	}
-
-	AffineTransform toAffineTransform() {
-		return new AffineTransform(
-				get(0, 0), get(1, 0),
-				get(0, 1), get(1, 1),
-				get(0, 2), get(1, 2)
-		);
-	}
-
-	private Matrix2D absolute() {
-		double[][] a = this.matrix;
-		double[][] result = new double[3][3];
-
-		for (int r = 0; r < 3; r++) {
-			for (int c = 0; c < 3; c++) {
-				result[r][c] = Math.abs(a[r][c]);
-			}
-		}
-
-		return new Matrix2D(result);
+	public int hashCode() {
+		int result = 1;
+		result = 31 * result + hashRow(m00, m01, m02);
+		result = 31 * result + hashRow(m10, m11, m12);
+		result = 31 * result + hashRow(m20, m21, m22);
+		return result;
 	}
 
-	private boolean allLessThanOrEqual(double value) {
-		double[][] a = this.matrix;
-
-		for (int r = 0; r < 3; r++) {
-			for (int c = 0; c < 3; c++) {
-				if (a[r][c] > value) {
-					return false;
-				}
-			}
-		}
-
-		return true;
+	private static int hashRow(double c0, double c1, double c2) {
+		int result = 1;
+		result = 31 * result + Double.hashCode(c0);
+		result = 31 * result + Double.hashCode(c1);
+		result = 31 * result + Double.hashCode(c2);
+		return result;
 	}
 
-	private Matrix2D divide(double divisor) {
-		return fromRowMajor(
-			get(0, 0) / divisor, get(0, 1) / divisor, get(0, 2) / divisor,
-			get(1, 0) / divisor, get(1, 1) / divisor, get(1, 2) / divisor,
-			get(2, 0) / divisor, get(2, 1) / divisor, get(2, 2) / divisor
+	@Override
+	public String toString() {
+		return "[" +
+				"[" + m00 + ", " + m01 + ", " + m02 + "], " +
+				"[" + m10 + ", " + m11 + ", " + m12 + "], " +
+				"[" + m20 + ", " + m21 + ", " + m22 + "]" +
+				"]";
+	}
+
+	/*
+		Whether this matrix only moves points without scaling, rotating or shearing them.
+	*/
+	boolean isTranslation() {
+		return m00 == 1 && m01 == 0 && m10 == 0 && m11 == 1 && m20 == 0 && m21 == 0 && m22 == 1;
+	}
+
+	/*
+		Writes this matrix, scaled by xScale and yScale, into an existing AffineTransform.
+		The same as converting scale(xScale, yScale) to an AffineTransform, but without allocating.
+	*/
+	void copyTo(AffineTransform target, double xScale, double yScale) {
+		target.setTransform(
+				xScale * m00, yScale * m10,
+				xScale * m01, yScale * m11,
+				xScale * m02, yScale * m12
 		);
 	}
 
 	private double determinant() {
-		double m00 = get(0, 0);
-		double m01 = get(0, 1);
-		double m02 = get(0, 2);
-		double m10 = get(1, 0);
-		double m11 = get(1, 1);
-		double m12 = get(1, 2);
-		double m20 = get(2, 0);
-		double m21 = get(2, 1);
-		double m22 = get(2, 2);
-
 		return m00 * m11 * m22 + m01 * m12 * m20 + m02 * m10 * m21 - m00 * m12 * m21 - m01 * m10 * m22 - m02 * m11 * m20;
 	}
-
-	private Matrix2D adjunct() {
-		return minor().cofactor().transpose();
-	}
-
-	private Matrix2D transpose() {
-		// this.matrix is in row major order
-		return fromColumnMajor(this.matrix);
-	}
-
-	private Matrix2D minor() {
-		double m00 = get(0, 0);
-		double m01 = get(0, 1);
-		double m02 = get(0, 2);
-		double m10 = get(1, 0);
-		double m11 = get(1, 1);
-		double m12 = get(1, 2);
-		double m20 = get(2, 0);
-		double m21 = get(2, 1);
-		double m22 = get(2, 2);
-
-		return fromRowMajor(
-			m11 * m22 - m21 * m12,
-			m10 * m22 - m20 * m12,
-			m10 * m21 - m20 * m11,
-
-			m01 * m22 - m21 * m02,
-			m00 * m22 - m20 * m02,
-			m00 * m21 - m20 * m01,
-
-			m01 * m12 - m11 * m02,
-			m00 * m12 - m10 * m02,
-			m00 * m11 - m10 * m01
-		);
-	}
-
-	private Matrix2D cofactor() {
-		return fromRowMajor(
-				+get(0, 0), -get(0, 1), +get(0, 2),
-				-get(1, 0), +get(1, 1), -get(1, 2),
-				+get(2, 0), -get(2, 1), +get(2, 2)
-		);
-	}
-
 }
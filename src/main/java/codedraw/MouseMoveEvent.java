@@ -10,7 +10,15 @@ public class MouseMoveEvent extends Event {
 		this.e = e;
 	}
 
-	private final MouseEvent e;
+	private MouseEvent e;
+
+	boolean merge(MouseMoveEvent newer) {
+		if (!beginMerge()) return false;
+
+		e = newer.e;
+		endMerge(newer);
+		return true;
+	}
 
 	/**
 	 * Gets the distance in pixel from the left side of the canvas to the mouse.
@@ -5,10 +5,18 @@ package codedraw;
  */
 public class MouseWheelEvent extends Event {
 	MouseWheelEvent(java.awt.event.MouseWheelEvent e) {
-		this.e = e;
+		this.wheelRotation = e.getPreciseWheelRotation();
 	}
 
-	private final java.awt.event.MouseWheelEvent e;
+	private double wheelRotation;
+
+	boolean merge(MouseWheelEvent newer) {
+		if (!beginMerge()) return false;
+
+		wheelRotation += newer.wheelRotation;
+		endMerge(newer);
+		return true;
+	}
 
 	/**
 	 * Returns the amount of wheel rotation. One rotation is one click on the mouse.
@@ -18,7 +26,7 @@ public class MouseWheelEvent extends Event {
 	 * @return the wheel rotation.
 	 */
 	public double getWheelRotation() {
-		return e.getPreciseWheelRotation();
+		return wheelRotation;
 	}
 
 	@Override
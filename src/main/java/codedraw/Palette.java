@@ -40,7 +40,8 @@ public final class Palette {
 	 * @param rgba any integer value.
 	 */
 	public static Color fromRGBA(int rgba) {
-		return fromRGBA((rgba >>> 24) & 0xFF, (rgba >> 16) & 0xFF, (rgba >> 8) & 0xFF, rgba & 0xFF);
+		// every component is masked to 8 bits and therefore always in range
+		return new Color((rgba >>> 24) & 0xFF, (rgba >> 16) & 0xFF, (rgba >> 8) & 0xFF, rgba & 0xFF);
 	}
 
 	/**
@@ -55,7 +56,7 @@ public final class Palette {
 		checkRange(green, "green", 0, 256);
 		checkRange(blue, "blue", 0, 256);
 
-		return fromRGBA(red, green, blue, 0xFF);
+		return new Color(red, green, blue, 0xFF);
 	}
 
 	/**
@@ -67,7 +68,7 @@ public final class Palette {
 	public static Color fromRGB(int rgb) {
 		checkRange(rgb, "rgb", 0, (1 << 24) + 1);
 
-		return fromRGB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+		return new Color((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, 0xFF);
 	}
 
 	/**
@@ -78,7 +79,7 @@ public final class Palette {
 	public static Color fromGrayscale(int gray) {
 		checkRange(gray, "gray", 0, 256);
 
-		return fromRGB(gray, gray, gray);
+		return new Color(gray, gray, gray, 0xFF);
 	}
 
 	/**
@@ -110,6 +111,63 @@ public final class Palette {
 	 * @return an RGB Color.
 	 */
 	public static Color fromHSV(int hue, int saturation, int brightness) {
+		return new Color(packHSV(hue, saturation, brightness), true);
+	}
+
+	/**
+	 * Creates a packed ARGB color.
+	 * The 8 most significant bits represent the alpha value, followed by 8 bits each for red, green and blue.
+	 * This is the same format as returned by {@link Color#getRGB()} and accepted by
+	 * {@link Image#setColorARGB(int)}, {@link Image#clear(int)} and {@link Image#setPixel(int, int, int)}.
+	 * Unlike {@link #fromRGBA(int, int, int, int)} no {@link Color} object is created.
+	 * @param transparency The value can range from 0 to 255. 0 is invisible and 255 is 100% visible.
+	 * @param red The value can range from 0 to 255.
+	 * @param green The value can range from 0 to 255.
+	 * @param blue The value can range from 0 to 255.
+	 * @return a packed ARGB color.
+	 */
+	public static int packARGB(int transparency, int red, int green, int blue) {
+		if (((transparency | red | green | blue) & ~0xFF) != 0) {
+			throw new IllegalArgumentException("The parameters transparency, red, green and blue must be great or equal to 0 and smaller than 256");
+		}
+
+		return (transparency << 24) | (red << 16) | (green << 8) | blue;
+	}
+
+	/**
+	 * Creates a packed ARGB color with the alpha implicitly being 255.
+	 * See {@link #packARGB(int, int, int, int)} for details on the format.
+	 * @param red The value can range from 0 to 255.
+	 * @param green The value can range from 0 to 255.
+	 * @param blue The value can range from 0 to 255.
+	 * @return a packed ARGB color.
+	 */
+	public static int packRGB(int red, int green, int blue) {
+		return packARGB(0xFF, red, green, blue);
+	}
+
+	/**
+	 * Converts a color to a packed ARGB color.
+	 * See {@link #packARGB(int, int, int, int)} for details on the format.
+	 * @param color any color.
+	 * @return a packed ARGB color.
+	 */
+	public static int toARGB(Color color) {
+		if (color == null) throw createParameterNullException("color");
+
+		return color.getRGB();
+	}
+
+	/**
+	 * Converts a color from the HSV color space to a packed ARGB color with the alpha being 255.
+	 * See {@link #fromHSV(int, int, int)} for details on the HSV color space
+	 * and {@link #packARGB(int, int, int, int)} for details on the format.
+	 * @param hue The coloration on a color wheel. Can be a value between 0 and 360.
+	 * @param saturation The intensity of the color. Can be a value between 0 and 100.
+	 * @param brightness The brightness or luminosity of the color. Can be a value between 0 and 100.
+	 * @return a packed ARGB color.
+	 */
+	public static int packHSV(int hue, int saturation, int brightness) {
 		checkRange(hue, "hue", 0, 361);
 		checkRange(saturation, "saturation", 0, 101);
 		checkRange(brightness, "brightness", 0, 101);
@@ -136,7 +194,7 @@ public final class Palette {
 			default: throw new RuntimeException("Invalid input for hue");
 		}
 
-		return fromRGB(toColorByte(r + m), toColorByte(g + m), toColorByte(b + m));
+		return packRGB(toColorByte(r + m), toColorByte(g + m), toColorByte(b + m));
 	}
 
 	private static int toColorByte(int x) {
@@ -1,6 +1,5 @@
 package codedraw;
 
-import java.awt.*;
 import java.awt.geom.Path2D;
 
 /**
@@ -18,18 +17,16 @@ import java.awt.geom.Path2D;
  * }</pre>
  */
 public class Path {
-	Path(Image image, Graphics2D g, double startX, double startY, boolean fill) {
-		if (g == null) throw new IllegalArgumentException("The parameter g cannot be null.");
+	Path(Image image, double startX, double startY, boolean fill) {
+		if (image == null) throw new IllegalArgumentException("The parameter image cannot be null.");
 
 		this.image = image;
-		this.g = g;
 		this.path = new Path2D.Double();
 		this.path.moveTo(startX, startY);
 		this.fill = fill;
 	}
 
 	private final Image image;
-	private final Graphics2D g;
 	private final Path2D path;
 	private final boolean fill;
 
@@ -170,10 +167,10 @@ public class Path {
 		image.beforeDrawing();
 		path.closePath();
 		if (fill) {
-			g.fill(path);
+			image.fillShape(path);
 		}
 		else {
-			g.draw(path);
+			image.drawShape(path);
 		}
 		image.afterDrawing();
 	}
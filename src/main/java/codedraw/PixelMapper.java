@@ -0,0 +1,23 @@
+package codedraw;
+
+/**
+ * A PixelMapper calculates the new color of a pixel from its position and its current color.
+ * It is used by {@link Image#mapPixels(PixelMapper)}.
+ * All colors are packed ARGB integers, the same format as returned by {@link java.awt.Color#getRGB()}.
+ * <pre>{@code
+ * // inverts the colors of the image
+ * image.mapPixels((x, y, argb) -> argb ^ 0x00FFFFFF);
+ * }</pre>
+ */
+@FunctionalInterface
+public interface PixelMapper {
+	/**
+	 * Calculates the new color of a pixel.
+	 * This method is called from multiple threads at once and must not depend on the order the pixels are visited in.
+	 * @param x The distance in pixel from the left side of the image.
+	 * @param y The distance in pixel from the top side of the image.
+	 * @param argb the current color of the pixel as a packed ARGB integer.
+	 * @return the new color of the pixel as a packed ARGB integer.
+	 */
+	int map(int x, int y, int argb);
+}
@@ -0,0 +1,217 @@
+package codedraw;
+
+/**
+ * A PixelView gives direct access to the pixels of an {@link Image}.
+ * It can only be obtained through {@link Image#editPixels(java.util.function.Consumer)}
+ * and is only valid for the duration of that call.
+ * All colors are packed ARGB integers, the same format as returned by {@link java.awt.Color#getRGB()}.
+ * The 8 most significant bits represent the alpha value, followed by 8 bits each for red, green and blue.
+ * <pre>{@code
+ * image.editPixels(pixels -> {
+ *     for (int y = 0; y < pixels.getHeight(); y++) {
+ *         for (int x = 0; x < pixels.getWidth(); x++) {
+ *             pixels.setPixel(x, y, 0xFF000000 | (x << 16) | y);
+ *         }
+ *     }
+ * });
+ * }</pre>
+ * The coordinates are the same as the coordinates of the image.
+ * If the image is DPI aware each pixel is made up of multiple sub-pixels,
+ * reading a pixel returns the average of its sub-pixels and writing a pixel sets all of its sub-pixels.
+ * Transformations set by {@link Image#setTransformation(Matrix2D)} are ignored.
+ */
+public class PixelView {
+	PixelView(int[] data, int stride, int width, int height, int xScale, int yScale) {
+		this.data = data;
+		this.stride = stride;
+		this.width = width;
+		this.height = height;
+		this.xScale = xScale;
+		this.yScale = yScale;
+	}
+
+	private final int[] data;
+	private final int stride;
+	private final int width;
+	private final int height;
+	private final int xScale;
+	private final int yScale;
+	private boolean isClosed = false;
+
+	/**
+	 * The width of the underlying image.
+	 * @return the width in pixel.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * The height of the underlying image.
+	 * @return the height in pixel.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the ARGB color of the pixel at the specified location.
+	 * @param x The distance in pixel from the left side of the image.
+	 * @param y The distance in pixel from the top side of the image.
+	 * @return a packed ARGB color.
+	 */
+	public int getPixel(int x, int y) {
+		checkIsClosed();
+		if (x < 0 || width <= x) throw createParameterNotInRangeException("x", 0, width);
+		if (y < 0 || height <= y) throw createParameterNotInRangeException("y", 0, height);
+
+		return readPixel(data, stride, xScale, yScale, x, y);
+	}
+
+	/**
+	 * Sets the pixel at the specified location to the ARGB color.
+	 * No exception is thrown if x or y are outside the bounds of the image.
+	 * @param x The distance in pixel from the left side of the image.
+	 * @param y The distance in pixel from the top side of the image.
+	 * @param argb a packed ARGB color.
+	 */
+	public void setPixel(int x, int y, int argb) {
+		checkIsClosed();
+		if (0 <= x && x < width && 0 <= y && y < height) {
+			writePixel(data, stride, xScale, yScale, x, y, argb);
+		}
+	}
+
+	/**
+	 * Copies a rectangular section of pixels into the argb array.
+	 * The pixels are stored row by row, therefore the pixel (x + i, y + j) is written to argb[j * width + i].
+	 * @param argb The array the ARGB colors are written to. Must be at least width * height long.
+	 * @param x The left side of the section.
+	 * @param y The top side of the section.
+	 * @param width The width of the section.
+	 * @param height The height of the section.
+	 */
+	public void getPixels(int[] argb, int x, int y, int width, int height) {
+		checkIsClosed();
+		checkSection(argb, x, y, width, height, this.width, this.height);
+
+		readPixels(data, stride, xScale, yScale, argb, x, y, width, height);
+	}
+
+	/**
+	 * Copies the argb array into a rectangular section of pixels.
+	 * The pixels are read row by row, therefore argb[j * width + i] is written to the pixel (x + i, y + j).
+	 * @param argb The array the ARGB colors are read from. Must be at least width * height long.
+	 * @param x The left side of the section.
+	 * @param y The top side of the section.
+	 * @param width The width of the section.
+	 * @param height The height of the section.
+	 */
+	public void setPixels(int[] argb, int x, int y, int width, int height) {
+		checkIsClosed();
+		checkSection(argb, x, y, width, height, this.width, this.height);
+
+		writePixels(data, stride, xScale, yScale, argb, x, y, width, height);
+	}
+
+	void close() {
+		isClosed = true;
+	}
+
+	private void checkIsClosed() {
+		if (isClosed) {
+			throw new IllegalStateException("This PixelView can only be used inside of Image.editPixels.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PixelView " + width + "x" + height;
+	}
+
+	static int readPixel(int[] data, int stride, int xScale, int yScale, int x, int y) {
+		int start = y * yScale * stride + x * xScale;
+
+		if (xScale == 1 && yScale == 1) {
+			return data[start];
+		}
+
+		int a = 0;
+		int r = 0;
+		int g = 0;
+		int b = 0;
+
+		for (int yi = 0; yi < yScale; yi++) {
+			int row = start + yi * stride;
+			for (int xi = 0; xi < xScale; xi++) {
+				int argb = data[row + xi];
+				a += (argb >>> 24);
+				r += (argb >> 16) & 0xFF;
+				g += (argb >> 8) & 0xFF;
+				b += argb & 0xFF;
+			}
+		}
+
+		int count = xScale * yScale;
+		return ((a / count) << 24) | ((r / count) << 16) | ((g / count) << 8) | (b / count);
+	}
+
+	static void writePixel(int[] data, int stride, int xScale, int yScale, int x, int y, int argb) {
+		int start = y * yScale * stride + x * xScale;
+
+		if (xScale == 1 && yScale == 1) {
+			data[start] = argb;
+			return;
+		}
+
+		for (int yi = 0; yi < yScale; yi++) {
+			int row = start + yi * stride;
+			for (int xi = 0; xi < xScale; xi++) {
+				data[row + xi] = argb;
+			}
+		}
+	}
+
+	static void readPixels(int[] data, int stride, int xScale, int yScale, int[] argb, int x, int y, int width, int height) {
+		if (xScale == 1 && yScale == 1) {
+			for (int j = 0; j < height; j++) {
+				System.arraycopy(data, (y + j) * stride + x, argb, j * width, width);
+			}
+			return;
+		}
+
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				argb[j * width + i] = readPixel(data, stride, xScale, yScale, x + i, y + j);
+			}
+		}
+	}
+
+	static void writePixels(int[] data, int stride, int xScale, int yScale, int[] argb, int x, int y, int width, int height) {
+		if (xScale == 1 && yScale == 1) {
+			for (int j = 0; j < height; j++) {
+				System.arraycopy(argb, j * width, data, (y + j) * stride + x, width);
+			}
+			return;
+		}
+
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				writePixel(data, stride, xScale, yScale, x + i, y + j, argb[j * width + i]);
+			}
+		}
+	}
+
+	static void checkSection(int[] argb, int x, int y, int width, int height, int imageWidth, int imageHeight) {
+		if (argb == null) throw new IllegalArgumentException("The parameter argb cannot be null.");
+		if (width < 0) throw new IllegalArgumentException("The parameter width must be equal or greater than zero.");
+		if (height < 0) throw new IllegalArgumentException("The parameter height must be equal or greater than zero.");
+		if (x < 0 || imageWidth < x + width) throw new IllegalArgumentException("The parameters x and x + width must be within the bounds of the image.");
+		if (y < 0 || imageHeight < y + height) throw new IllegalArgumentException("The parameters y and y + height must be within the bounds of the image.");
+		if ((long)width * height > argb.length) throw new IllegalArgumentException("The parameter argb must be at least width * height long.");
+	}
+
+	private static IllegalArgumentException createParameterNotInRangeException(String parameterName, int minInclusive, int maxExclusive) {
+		return new IllegalArgumentException("The parameter " + parameterName + " must be greater or equal to " + minInclusive + " and smaller than " + maxExclusive);
+	}
+}
@@ -1,12 +1,16 @@
 package codedraw;
 
 class Scheduler {
-	public Scheduler(long timeIntervalBetweenTasksInMilliseconds, boolean dropTasks) {
-		this.timeIntervalMilliseconds = timeIntervalBetweenTasksInMilliseconds;
+	public Scheduler(int tasksPerSecond, boolean dropTasks) {
+		if (tasksPerSecond < 1) throw new IllegalArgumentException("The parameter tasksPerSecond must be greater than zero.");
+
+		this.tasksPerSecond = tasksPerSecond;
 		this.dropTasks = dropTasks;
 	}
 
-	private final long timeIntervalMilliseconds;
+	private static final long NANOSECONDS_PER_SECOND = 1_000_000_000L;
+
+	private final long tasksPerSecond;
 	private final boolean dropTasks;
 	private final long startTime = now();
 
@@ -33,20 +37,44 @@ class Scheduler {
 		}
 	}
 
-	public long timeUntilNextTask() {
-		return startTime + timeIntervalMilliseconds * totalCompletedTasks() - now();
+	public long nanosecondsUntilNextTask() {
+		return startTime + dueTimeOfTask(totalCompletedTasks()) - now();
+	}
+
+	/**
+	 * How far the time has progressed from the moment the last task was due to the moment the next task is due.
+	 * @return a value between 0 and 1.
+	 */
+	public double progressToNextTask() {
+		long completed = totalCompletedTasks();
+		if (completed == 0) return 0;
+
+		long previous = dueTimeOfTask(completed - 1);
+		long next = dueTimeOfTask(completed);
+		double progress = (double)(now() - startTime - previous) / (next - previous);
+
+		return Math.max(0, Math.min(1, progress));
 	}
 
 	private long totalCompletedTasks() {
 		return doneTasks + droppedTasks;
 	}
 
+	/*
+		The period between two tasks is usually not a whole number of nanoseconds (e.g. 60 per second).
+		The due times are therefore calculated from the task number instead of adding up a rounded period,
+		which would drift over time. The calculations are split into whole seconds and the remainder to avoid overflows.
+	*/
 	private long targetTaskTotalNow() {
-		return (now() - startTime) / timeIntervalMilliseconds;
+		long elapsed = now() - startTime;
+		return (elapsed / NANOSECONDS_PER_SECOND) * tasksPerSecond + (elapsed % NANOSECONDS_PER_SECOND) * tasksPerSecond / NANOSECONDS_PER_SECOND;
 	}
 
-	private static long now() {
-		return System.currentTimeMillis();
+	private long dueTimeOfTask(long task) {
+		return (task / tasksPerSecond) * NANOSECONDS_PER_SECOND + ((task % tasksPerSecond) * NANOSECONDS_PER_SECOND + tasksPerSecond - 1) / tasksPerSecond;
 	}
 
+	private static long now() {
+		return System.nanoTime();
+	}
 }
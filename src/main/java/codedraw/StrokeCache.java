@@ -0,0 +1,30 @@
+package codedraw;
+
+import java.awt.*;
+
+/**
+ * Interns {@link BasicStroke} objects by their width, cap and join.
+ * Returning the same stroke object for the same style lets {@link Image} detect that the stroke has not changed,
+ * so switching between a few line styles does neither allocate new strokes nor invalidate the Graphics2D pipeline.
+ * The cache is direct mapped, so a stroke can be evicted by any other stroke that hashes to the same slot.
+ * Races between threads are harmless, because a cached stroke is only returned if its style matches.
+ */
+class StrokeCache {
+	private StrokeCache() { }
+
+	private static final int SIZE = 64;
+	private static final BasicStroke[] cache = new BasicStroke[SIZE];
+
+	public static BasicStroke get(float width, int cap, int join) {
+		int hash = Float.floatToIntBits(width) * 31 + cap * 7 + join;
+		int index = (hash * 0x9E3779B9) >>> 26;
+		BasicStroke stroke = cache[index];
+
+		if (stroke == null || stroke.getLineWidth() != width || stroke.getEndCap() != cap || stroke.getLineJoin() != join) {
+			stroke = new BasicStroke(width, cap, join);
+			cache[index] = stroke;
+		}
+
+		return stroke;
+	}
+}
@@ -1,7 +1,8 @@
 package codedraw;
 
 import java.awt.*;
-import java.awt.font.TextAttribute;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.*;
 
 /**
@@ -54,6 +55,7 @@ public final class TextFormat {
 	public TextFormat setFontSize(int fontSize) {
 		if (fontSize < 1) throw createParameterMustBeGreaterThanZeroException("fontSize");
 		this.fontSize = fontSize;
+		invalidateFont();
 		return this;
 	}
 
@@ -83,6 +85,7 @@ public final class TextFormat {
 		if (fallbackFontNames == null) throw createParameterNullException("fallbackFontNames");
 
 		this.fontName = getFirstAvailableFontName(fontName, fallbackFontNames);
+		invalidateFont();
 		return this;
 	}
 
@@ -122,6 +125,7 @@ public final class TextFormat {
 	 */
 	public TextFormat setBold(boolean isBold) {
 		this.isBold = isBold;
+		invalidateFont();
 		return this;
 	}
 
@@ -141,6 +145,7 @@ public final class TextFormat {
 	 */
 	public TextFormat setItalic(boolean isItalic) {
 		this.isItalic = isItalic;
+		invalidateFont();
 		return this;
 	}
 
@@ -161,6 +166,7 @@ public final class TextFormat {
 	public TextFormat setUnderlined(Underline underline) {
 		if (underline == null) throw createParameterNullException("underline");
 		this.underline = underline;
+		invalidateFont();
 		return this;
 	}
 
@@ -180,19 +186,87 @@ public final class TextFormat {
 	 */
 	public TextFormat setStrikethrough(boolean isStrikethrough) {
 		this.isStrikethrough = isStrikethrough;
+		invalidateFont();
 		return this;
 	}
 
-	private Font toFont() {
-		return Font.getFont(new HashMap<TextAttribute, Object>() {{
-			put(TextAttribute.FAMILY, getFontName());
-			put(TextAttribute.SIZE, getFontSize());
-			put(TextAttribute.POSTURE, isItalic() ? 0.2f : 0);
-			put(TextAttribute.UNDERLINE, underlineEnumToTextAttributeUnderlineNumber(getUnderline()));
-			put(TextAttribute.WEIGHT, isBold() ? 2.0f : 1.0f);
-			put(TextAttribute.KERNING, TextAttribute.KERNING_ON); //Kerning is always on, 0 == KERNING_OFF
-			put(TextAttribute.STRIKETHROUGH, isStrikethrough());
-		}});
+	TextFormat copy() {
+		TextFormat copy = new TextFormat();
+		copy.textOrigin = textOrigin;
+		copy.fontSize = fontSize;
+		copy.fontName = fontName;
+		copy.isBold = isBold;
+		copy.isItalic = isItalic;
+		copy.underline = underline;
+		copy.isStrikethrough = isStrikethrough;
+		copy.font = font;
+		return copy;
+	}
+
+	/*
+		The resolved font and its metrics are cached until one of the font properties changes.
+		The metrics also depend on the FontRenderContext of the graphics object they are used with.
+	*/
+	private Font font = null;
+	private FontMetrics fontMetrics = null;
+
+	private void invalidateFont() {
+		font = null;
+		fontMetrics = null;
+	}
+
+	Font toFont() {
+		Font result = font;
+		if (result == null) {
+			result = FontCache.get(fontName, fontSize, isBold, isItalic, underline, isStrikethrough);
+			font = result;
+		}
+		return result;
+	}
+
+	private FontMetrics getFontMetrics(Graphics2D graphics, Font font) {
+		FontMetrics result = fontMetrics;
+		if (result == null || result.getFont() != font || !result.getFontRenderContext().equals(graphics.getFontRenderContext())) {
+			result = graphics.getFontMetrics(font);
+			fontMetrics = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Measures the text as it would be drawn with this text format, without drawing it.
+	 * The measurement uses the same rendering settings as a newly created {@link Image}
+	 * and can be called from any thread.
+	 * See {@link TextMetrics} for the meaning of the returned values.
+	 * @param text The text or string to be measured.
+	 * @return the size and position of the text and each of its lines.
+	 */
+	public TextMetrics measureText(String text) {
+		if (text == null) throw createParameterNullException("text");
+
+		return measureText(getMeasuringGraphics(), text);
+	}
+
+	TextMetrics measureText(Graphics2D graphics, String text) {
+		Font font = toFont();
+		FontMetrics fontMetrics = getFontMetrics(graphics, font);
+		TextLayoutCache.ShapedText shapedText = TextLayoutCache.get(text, font, fontMetrics);
+		return new TextMetrics(new PlacedText(0, 0, font, fontMetrics, shapedText.lines, shapedText.widths, textOrigin));
+	}
+
+	/*
+		Measuring only reads the font render context of the graphics object, so a single one can be shared by all threads.
+	*/
+	private static Graphics2D measuringGraphics = null;
+
+	private static synchronized Graphics2D getMeasuringGraphics() {
+		if (measuringGraphics == null) {
+			measuringGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+			AWTRenderingHint.AntiAliasing.ON.applyTo(measuringGraphics);
+			AWTRenderingHint.TextAntiAliasing.ON.applyTo(measuringGraphics);
+			AWTRenderingHint.FractionalMetrics.ON.applyTo(measuringGraphics);
+		}
+		return measuringGraphics;
 	}
 
 	/**
@@ -200,7 +274,7 @@ public final class TextFormat {
 	 * @return an array of all available fonts.
 	 */
 	public static String[] getAllAvailableFontNames() {
-		return GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames();
+		return FontRegistry.getFontNames();
 	}
 
 	/**
@@ -212,24 +286,17 @@ public final class TextFormat {
 	public static boolean isFontNameAvailable(String fontName) {
 		if (fontName == null) throw createParameterNullException("fontName");
 
-		for (String font : getAllAvailableFontNames()) {
-			if (font.equals(fontName)) {
-				return true;
-			}
-		}
-
-		return false;
+		return FontRegistry.isAvailable(fontName);
 	}
 
-	private static int underlineEnumToTextAttributeUnderlineNumber(Underline underline) {
-		switch (underline) {
-			case NONE: return -1;
-			case SOLID: return TextAttribute.UNDERLINE_ON;
-			case DASHED: return TextAttribute.UNDERLINE_LOW_DASHED;
-			case DOTTED: return TextAttribute.UNDERLINE_LOW_DOTTED;
-			case WAVY: return TextAttribute.UNDERLINE_LOW_GRAY;
-			default: throw new RuntimeException("Unknown underline type");
-		}
+	/**
+	 * The available fonts are only looked up once and then remembered.
+	 * If fonts are installed or removed while the program is running,
+	 * this method has to be called before the changes are visible to {@link #getAllAvailableFontNames()},
+	 * {@link #isFontNameAvailable(String)} and {@link #setFontName(String, String...)}.
+	 */
+	public static void refreshAvailableFontNames() {
+		FontRegistry.refresh();
 	}
 
 	@Override
@@ -258,16 +325,88 @@ public final class TextFormat {
 				+ "}";
 	}
 
-	static void drawText(Graphics2D graphics, double x, double y, String text, TextFormat textFormat) {
-		graphics.setFont(textFormat.toFont());
-		FontMetrics fontMetrics = graphics.getFontMetrics();
-		String[] lines = text.split("(\r\n)|\r|\n", -1);
+	/*
+		Returns a rectangle that contains all drawn glyphs.
+		Italic and decorated glyphs can reach past their advance, which is why the bounds are padded by the maximum advance.
+	*/
+	static Rectangle2D drawText(Graphics2D graphics, double x, double y, String text, TextFormat textFormat) {
+		Font font = textFormat.toFont();
+		FontMetrics fontMetrics = textFormat.getFontMetrics(graphics, font);
+		TextLayoutCache.ShapedText shapedText = TextLayoutCache.get(text, font, fontMetrics);
+		PlacedText placedText = new PlacedText(x, y, font, fontMetrics, shapedText.lines, shapedText.widths, textFormat.getTextOrigin());
+
+		for (int i = 0; i < shapedText.layouts.length; i++) {
+			if (shapedText.layouts[i] != null) {
+				shapedText.layouts[i].draw(graphics, (float) placedText.lineX[i], (float) placedText.lineY[i]);
+			}
+		}
+
+		return placedText.getPaddedBounds();
+	}
+
+	/*
+		Places the text the same way as drawText places it, without drawing it.
+	*/
+	static PlacedText placeText(Graphics2D graphics, double x, double y, String text, TextFormat textFormat) {
+		Font font = textFormat.toFont();
+		FontMetrics fontMetrics = textFormat.getFontMetrics(graphics, font);
+		TextLayoutCache.ShapedText shapedText = TextLayoutCache.get(text, font, fontMetrics);
+		return new PlacedText(x, y, font, fontMetrics, shapedText.lines, shapedText.widths, textFormat.getTextOrigin());
+	}
+
+	/*
+		Places lines that have already been measured the same way as drawText places them.
+	*/
+	static PlacedText placeText(Graphics2D graphics, double x, double y, String[] lines, int[] widths, TextFormat textFormat) {
+		Font font = textFormat.toFont();
+		return new PlacedText(x, y, font, textFormat.getFontMetrics(graphics, font), lines, widths, textFormat.getTextOrigin());
+	}
+
+	boolean hasDecorations() {
+		return underline != Underline.NONE || isStrikethrough;
+	}
+
+	static class PlacedText {
+		public PlacedText(double x, double y, Font font, FontMetrics fontMetrics, String[] lines, int[] widths, TextOrigin textOrigin) {
+			this.font = font;
+			this.fontMetrics = fontMetrics;
+			this.lines = lines;
+			this.widths = widths;
+			this.lineX = new double[lines.length];
+			this.lineY = new double[lines.length];
+
+			y += calculateVerticalOffset(textOrigin, fontMetrics, lines.length);
+
+			for (int i = 0; i < lines.length; i++) {
+				lineX[i] = x + calculateHorizontalOffset(textOrigin, widths[i]);
+				lineY[i] = y + i * fontMetrics.getHeight();
+			}
+		}
 
-		y += calculateVerticalOffset(textFormat.getTextOrigin(), fontMetrics, lines.length);
+		public final Font font;
+		public final FontMetrics fontMetrics;
+		public final String[] lines;
+		public final int[] widths;
+		// the start of the baseline of each line
+		public final double[] lineX;
+		public final double[] lineY;
+
+		public Rectangle2D getLineBounds(int line) {
+			return new Rectangle2D.Double(lineX[line], lineY[line] - fontMetrics.getAscent(), widths[line], fontMetrics.getHeight());
+		}
+
+		public Rectangle2D getBounds() {
+			Rectangle2D bounds = getLineBounds(0);
+			for (int i = 1; i < lineX.length; i++) {
+				bounds.add(getLineBounds(i));
+			}
+			return bounds;
+		}
 
-		for (int i = 0; i < lines.length; i++) {
-			double xi = x + calculateHorizontalOffset(textFormat.getTextOrigin(), fontMetrics, lines[i]);
-			graphics.drawString(lines[i], (float) xi, (float)(y + i * fontMetrics.getHeight()));
+		public Rectangle2D getPaddedBounds() {
+			Rectangle2D bounds = getBounds();
+			double padding = Math.max(fontMetrics.getMaxAdvance(), fontMetrics.getHeight());
+			return new Rectangle2D.Double(bounds.getX() - padding, bounds.getY() - padding, bounds.getWidth() + 2 * padding, bounds.getHeight() + 2 * padding);
 		}
 	}
 
@@ -293,7 +432,7 @@ public final class TextFormat {
 		}
 	}
 
-	private static double calculateHorizontalOffset(TextOrigin horizontalAlign, FontMetrics fontMetrics, String text) {
+	private static double calculateHorizontalOffset(TextOrigin horizontalAlign, int textWidth) {
 		switch (horizontalAlign) {
 			case TOP_LEFT:
 			case CENTER_LEFT:
@@ -302,11 +441,11 @@ public final class TextFormat {
 			case TOP_MIDDLE:
 			case CENTER:
 			case BOTTOM_MIDDLE:
-				return -fontMetrics.stringWidth(text) / 2D;
+				return -textWidth / 2D;
 			case TOP_RIGHT:
 			case CENTER_RIGHT:
 			case BOTTOM_RIGHT:
-				return -fontMetrics.stringWidth(text);
+				return -textWidth;
 			default:
 				throw new RuntimeException("Unknown horizontal alignment option.");
 		}
@@ -0,0 +1,110 @@
+package codedraw;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the shaped lines of recently drawn texts.
+ * Scoreboards, labels and other texts are usually drawn with the same content in every frame,
+ * in which case splitting the text into lines, measuring and shaping the glyphs is done only once.
+ * The cache is bounded, the least recently used text is removed once the capacity is exceeded.
+ */
+class TextLayoutCache {
+	private TextLayoutCache() { }
+
+	private static final int CAPACITY = 256;
+
+	private static final LinkedHashMap<Key, ShapedText> cache = new LinkedHashMap<Key, ShapedText>(CAPACITY, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, ShapedText> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	public static ShapedText get(String text, Font font, FontMetrics fontMetrics) {
+		Key key = new Key(text, font, fontMetrics.getFontRenderContext());
+
+		synchronized (cache) {
+			ShapedText result = cache.get(key);
+			if (result != null) return result;
+		}
+
+		// shaping happens outside the lock, two threads might shape the same text but the result is the same
+		ShapedText result = new ShapedText(text, font, fontMetrics);
+
+		synchronized (cache) {
+			cache.put(key, result);
+		}
+
+		return result;
+	}
+
+	/*
+		Splits the text at \r\n, \r and \n. Empty lines are kept.
+	*/
+	static String[] splitLines(String text) {
+		ArrayList<String> lines = new ArrayList<>();
+		int start = 0;
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (c == '\n' || c == '\r') {
+				lines.add(text.substring(start, i));
+				if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') i++;
+				start = i + 1;
+			}
+		}
+
+		lines.add(text.substring(start));
+		return lines.toArray(new String[0]);
+	}
+
+	static class ShapedText {
+		public ShapedText(String text, Font font, FontMetrics fontMetrics) {
+			lines = splitLines(text);
+			layouts = new TextLayout[lines.length];
+			widths = new int[lines.length];
+
+			for (int i = 0; i < lines.length; i++) {
+				// a TextLayout cannot be created for an empty string, there is nothing to draw anyway
+				layouts[i] = lines[i].isEmpty() ? null : new TextLayout(lines[i], font, fontMetrics.getFontRenderContext());
+				widths[i] = fontMetrics.stringWidth(lines[i]);
+			}
+		}
+
+		public final String[] lines;
+		public final TextLayout[] layouts;
+		public final int[] widths;
+	}
+
+	private static class Key {
+		public Key(String text, Font font, FontRenderContext fontRenderContext) {
+			this.text = text;
+			this.font = font;
+			this.fontRenderContext = fontRenderContext;
+		}
+
+		public final String text;
+		public final Font font;
+		public final FontRenderContext fontRenderContext;
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Key that = (Key) o;
+			return text.equals(that.text) && font.equals(that.font) && fontRenderContext.equals(that.fontRenderContext);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(text, font, fontRenderContext);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package codedraw;
+
+/**
+ * TextMetrics describes the space a text occupies when it is drawn, without drawing it.
+ * It can be obtained through {@link TextFormat#measureText(String)} or {@link Image#measureText(String)}.
+ * All positions are relative to the point the text would be drawn at.
+ * If the text is drawn with {@code drawText(x, y, text)} the text occupies the rectangle
+ * from {@code (x + getX(), y + getY())} with the size {@code getWidth()} times {@code getHeight()}.
+ * The position of the text depends on the {@link TextOrigin} of the {@link TextFormat} it was measured with.
+ * <pre>{@code
+ * TextMetrics metrics = cd.measureText("Hello World!");
+ * cd.drawRectangle(100 + metrics.getX(), 100 + metrics.getY(), metrics.getWidth(), metrics.getHeight());
+ * cd.drawText(100, 100, "Hello World!");
+ * }</pre>
+ */
+public class TextMetrics {
+	TextMetrics(TextFormat.PlacedText placedText) {
+		lineCount = placedText.lines.length;
+		lineX = placedText.lineX.clone();
+		lineBaselines = placedText.lineY.clone();
+		lineWidths = new double[lineCount];
+		ascent = placedText.fontMetrics.getAscent();
+		descent = placedText.fontMetrics.getDescent();
+		lineHeight = placedText.fontMetrics.getHeight();
+
+		double left = Double.POSITIVE_INFINITY;
+		double right = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < lineCount; i++) {
+			lineWidths[i] = placedText.widths[i];
+			left = Math.min(left, lineX[i]);
+			right = Math.max(right, lineX[i] + lineWidths[i]);
+		}
+
+		x = left;
+		y = lineBaselines[0] - ascent;
+		width = right - left;
+		height = lineCount * lineHeight;
+	}
+
+	private final int lineCount;
+	private final double[] lineX;
+	private final double[] lineBaselines;
+	private final double[] lineWidths;
+	private final double ascent;
+	private final double descent;
+	private final double lineHeight;
+	private final double x;
+	private final double y;
+	private final double width;
+	private final double height;
+
+	/**
+	 * The left side of the text relative to the point the text is drawn at.
+	 * @return the distance in pixel.
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * The top side of the text relative to the point the text is drawn at.
+	 * @return the distance in pixel.
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * The width of the widest line.
+	 * @return the width in pixel.
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * The height of all lines including the space between them.
+	 * @return the height in pixel.
+	 */
+	public double getHeight() {
+		return height;
+	}
+
+	/**
+	 * The distance from the top of a line to its baseline.
+	 * @return the ascent in pixel.
+	 */
+	public double getAscent() {
+		return ascent;
+	}
+
+	/**
+	 * The distance from the baseline of a line to the bottom of the lowest letters.
+	 * @return the descent in pixel.
+	 */
+	public double getDescent() {
+		return descent;
+	}
+
+	/**
+	 * The distance between the tops of two consecutive lines.
+	 * @return the line height in pixel.
+	 */
+	public double getLineHeight() {
+		return lineHeight;
+	}
+
+	/**
+	 * The number of lines of the measured text.
+	 * Lines are separated by \n, \r or \r\n.
+	 * @return the number of lines, at least one.
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * The left side of a line relative to the point the text is drawn at.
+	 * @param line the index of the line starting at 0.
+	 * @return the distance in pixel.
+	 */
+	public double getLineX(int line) {
+		checkLine(line);
+		return lineX[line];
+	}
+
+	/**
+	 * The top side of a line relative to the point the text is drawn at.
+	 * @param line the index of the line starting at 0.
+	 * @return the distance in pixel.
+	 */
+	public double getLineY(int line) {
+		checkLine(line);
+		return lineBaselines[line] - ascent;
+	}
+
+	/**
+	 * The baseline of a line relative to the point the text is drawn at.
+	 * @param line the index of the line starting at 0.
+	 * @return the distance in pixel.
+	 */
+	public double getLineBaseline(int line) {
+		checkLine(line);
+		return lineBaselines[line];
+	}
+
+	/**
+	 * The width of a line.
+	 * @param line the index of the line starting at 0.
+	 * @return the width in pixel.
+	 */
+	public double getLineWidth(int line) {
+		checkLine(line);
+		return lineWidths[line];
+	}
+
+	private void checkLine(int line) {
+		if (line < 0 || lineCount <= line) {
+			throw new IllegalArgumentException("The parameter line must be greater or equal to 0 and smaller than " + lineCount);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TextMetrics{x: " + x + ", y: " + y + ", width: " + width + ", height: " + height + ", lines: " + lineCount + "}";
+	}
+}
@@ -0,0 +1,21 @@
+package codedraw;
+
+/**
+ * TextRenderer defines how {@link Image#drawText(double, double, String)} turns text into pixels.
+ * See {@link Image#setTextRenderer(TextRenderer)}.
+ */
+public enum TextRenderer {
+	/**
+	 * Every text is shaped and rasterized from the outlines of its glyphs.
+	 * Supports kerning, ligatures, all scripts, underlines, strikethrough and any transformation.
+	 */
+	OUTLINE,
+	/**
+	 * Every glyph of a font is rasterized only once into an atlas, drawing text then only copies the glyphs with the current color.
+	 * This is much faster when a lot of small text is drawn, for example the labels of a grid or a chart.
+	 * Glyphs are placed next to each other by their advance, therefore kerning and ligatures are not applied.
+	 * Falls back to {@link #OUTLINE} if the transformation does more than move the text,
+	 * if the text is underlined or struck through, or if the text contains characters outside the basic multilingual plane.
+	 */
+	GLYPH_ATLAS
+}
@@ -0,0 +1,72 @@
+package codedraw;
+
+import java.awt.*;
+import java.awt.image.VolatileImage;
+
+/*
+	Keeps a copy of an image inside a VolatileImage, which usually lives in video memory.
+	The raster of an Image can only be drawn in software, because its pixels are accessed directly,
+	whereas drawing a VolatileImage onto the screen can be done by the graphics card.
+	Only the outdated regions of the image are uploaded again.
+	If the platform does not accelerate VolatileImages (e.g. the software pipeline on Xvfb) the cache disables itself
+	and the caller has to draw the image in software.
+*/
+class VolatileImageCache {
+	private VolatileImage volatileImage = null;
+	private boolean isAccelerationUnavailable = false;
+
+	public boolean isAccelerationUnavailable() {
+		return isAccelerationUnavailable;
+	}
+
+	/*
+		Uploads the outdated region, given in raster coordinates, and draws the cached image onto the target.
+		Returns false if nothing was drawn because acceleration is not available.
+	*/
+	public boolean drawTo(Graphics2D target, GraphicsConfiguration configuration, Image source, Rectangle outdated) {
+		if (isAccelerationUnavailable || configuration == null) return false;
+
+		Rectangle raster = source.getRasterBounds();
+		Rectangle upload = outdated.intersection(raster);
+
+		do {
+			int status = volatileImage == null ? VolatileImage.IMAGE_INCOMPATIBLE : volatileImage.validate(configuration);
+
+			if (status == VolatileImage.IMAGE_INCOMPATIBLE || volatileImage.getWidth() != raster.width || volatileImage.getHeight() != raster.height) {
+				flush();
+				volatileImage = configuration.createCompatibleVolatileImage(raster.width, raster.height);
+
+				if (volatileImage == null || !volatileImage.getCapabilities().isAccelerated()) {
+					flush();
+					isAccelerationUnavailable = true;
+					return false;
+				}
+
+				upload = raster;
+			}
+			else if (status == VolatileImage.IMAGE_RESTORED) {
+				upload = raster;
+			}
+
+			if (!upload.isEmpty()) {
+				Graphics2D g = volatileImage.createGraphics();
+				source.drawRasterTo(g, upload);
+				g.dispose();
+			}
+
+			AWTRenderingHint.Interpolation.from(Interpolation.BICUBIC).applyTo(target);
+			target.drawImage(volatileImage, 0, 0, source.getWidth(), source.getHeight(), null);
+
+			// if the contents were lost while drawing, validate restores the image and everything is uploaded again
+		} while (volatileImage.contentsLost());
+
+		return true;
+	}
+
+	public void flush() {
+		if (volatileImage != null) {
+			volatileImage.flush();
+			volatileImage = null;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package auto;
+
+import codedraw.Corner;
+import codedraw.Image;
+import codedraw.Palette;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BatchDrawingTest {
+	@Test
+	public void batchDrawingMatchesSingleDrawCalls() {
+		double[] xs = { 10, 50, 90.5 };
+		double[] ys = { 20, 60.25, 30 };
+		double[] radii = { 5, 12, 0 };
+		double[] rectangles = { 5, 5, 30, 20, 60, 40, 25.5, 30 };
+		double[] lines = { 0, 0, 100, 80, 20, 70, 90, 10 };
+
+		for (Corner corner : Corner.values()) {
+			Image single = createImage(corner);
+			for (int i = 0; i < xs.length; i++) {
+				single.fillCircle(xs[i], ys[i], radii[i]);
+				single.drawCircle(xs[i], ys[i], radii[i] + 3);
+				single.drawPoint(ys[i], xs[i]);
+			}
+			for (int i = 0; i < rectangles.length; i += 4) {
+				single.fillRectangle(rectangles[i], rectangles[i + 1], rectangles[i + 2], rectangles[i + 3]);
+				single.drawRectangle(rectangles[i] + 2, rectangles[i + 1] + 2, rectangles[i + 2], rectangles[i + 3]);
+			}
+			for (int i = 0; i < lines.length; i += 4) {
+				single.drawLine(lines[i], lines[i + 1], lines[i + 2], lines[i + 3]);
+			}
+
+			Image batch = createImage(corner);
+			batch.fillCircles(xs, ys, radii);
+			batch.drawCircles(xs, ys, new double[] { 8, 15, 3 });
+			batch.drawPoints(new double[] { 20, 10, 60.25, 50, 30, 90.5 });
+			batch.fillRectangles(rectangles);
+			batch.drawRectangles(new double[] { 7, 7, 30, 20, 62, 42, 25.5, 30 });
+			batch.drawLines(lines);
+
+			int[] expected = new int[100 * 100];
+			int[] actual = new int[100 * 100];
+			single.getPixels(expected, 0, 0, 100, 100);
+			batch.getPixels(actual, 0, 0, 100, 100);
+			assertArrayEquals(corner.toString(), expected, actual);
+		}
+	}
+
+	@Test
+	public void batchDrawingValidatesParameters() {
+		Image image = new Image(10, 10);
+
+		assertThrows(IllegalArgumentException.class, () -> image.drawLines(new double[] { 1, 2, 3 }));
+		assertThrows(IllegalArgumentException.class, () -> image.drawPoints(new double[] { 1 }));
+		assertThrows(IllegalArgumentException.class, () -> image.fillCircles(new double[1], new double[2], new double[1]));
+		assertThrows(IllegalArgumentException.class, () -> image.fillCircles(new double[1], new double[1], new double[] { -1 }));
+		assertThrows(IllegalArgumentException.class, () -> image.fillRectangles(new double[] { 0, 0, -1, 1 }));
+		assertThrows(IllegalArgumentException.class, () -> image.fillRectangles(null));
+	}
+
+	private static Image createImage(Corner corner) {
+		Image image = new Image(100, 100, Palette.WHITE);
+		image.setCorner(corner);
+		image.setLineWidth(3);
+		image.setColor(Palette.BLUE);
+		return image;
+	}
+}
@@ -0,0 +1,47 @@
+package auto;
+
+import codedraw.BlendMode;
+import codedraw.Image;
+import codedraw.Palette;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BlendModeTest {
+	@Test
+	public void addingColorsSaturates() {
+		Image image = new Image(10, 10, Palette.fromRGB(100, 200, 50));
+		image.setBlendMode(BlendMode.ADD);
+		image.setColorARGB(0xFF646464);
+
+		image.fillRectangle(0, 0, 10, 10);
+
+		assertEquals(0xFFC8FF96, image.getPixelARGB(5, 5));
+	}
+
+	@Test
+	public void blendingImageEqualsBlendingShape() {
+		for (BlendMode mode : BlendMode.values()) {
+			Image expected = new Image(40, 30, Palette.fromRGB(90, 160, 220));
+			expected.setBlendMode(mode);
+			expected.setColorARGB(0xB4C85014);
+			expected.fillRectangle(5, 5, 20, 10);
+
+			int[] color = new int[20 * 10];
+			Arrays.fill(color, 0xB4C85014);
+			Image sprite = new Image(20, 10, Palette.TRANSPARENT);
+			sprite.setPixels(color, 0, 0, 20, 10);
+			Image actual = new Image(40, 30, Palette.fromRGB(90, 160, 220));
+			actual.setBlendMode(mode);
+			actual.drawImage(5, 5, sprite);
+
+			int[] expectedPixels = new int[40 * 30];
+			int[] actualPixels = new int[40 * 30];
+			expected.getPixels(expectedPixels, 0, 0, 40, 30);
+			actual.getPixels(actualPixels, 0, 0, 40, 30);
+			assertArrayEquals(mode.toString(), expectedPixels, actualPixels);
+		}
+	}
+}
@@ -72,6 +72,22 @@ public class ColorTest {
 		assertEquals(color, 2, 1, 10);
 	}
 
+	@Test
+	public void testPackARGB() {
+		int argb = Palette.packARGB(40, 10, 20, 30);
+		assertEquals(new Color(argb, true), 10, 20, 30, 40);
+	}
+
+	@Test
+	public void testPackHSVMatchesFromHSV() {
+		assertEquals(Palette.fromHSV(262, 29, 51).getRGB(), Palette.packHSV(262, 29, 51));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPackARGBOutOfRange() {
+		Palette.packARGB(255, 256, 0, 0);
+	}
+
 	private static void assertEquals(Color color, int red, int green, int blue) {
 		assertEquals(color, red, green, blue, 0xFF);
 	}
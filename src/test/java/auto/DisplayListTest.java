@@ -0,0 +1,114 @@
+package auto;
+
+import codedraw.*;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class DisplayListTest {
+	@Test
+	public void replayingDrawsTheSameAsRecording() {
+		Image recorded = new Image(200, 150);
+		recorded.startRecording();
+		drawScene(recorded);
+		DisplayList displayList = recorded.stopRecording();
+
+		Image replayed = new Image(200, 150);
+		replayed.drawDisplayList(displayList);
+
+		assertFalse(recorded.isRecording());
+		assertEquals(5, displayList.size());
+		assertArrayEquals(getPixels(recorded), getPixels(replayed));
+		assertEquals(Palette.BLACK.getRGB(), replayed.getColorARGB());
+		assertEquals(1, replayed.getLineWidth(), 0);
+	}
+
+	@Test
+	public void replayingAppliesTransformation() {
+		Image recording = new Image(200, 150);
+		recording.startRecording();
+		drawScene(recording);
+		DisplayList displayList = recording.stopRecording();
+
+		Image expected = new Image(200, 150);
+		expected.setTransformation(Matrix2D.IDENTITY.translate(20, -10));
+		drawScene(expected);
+
+		for (boolean isCached : new boolean[] { false, true, true }) {
+			displayList.setCached(isCached);
+			Image actual = new Image(200, 150);
+			actual.drawDisplayList(displayList, Matrix2D.IDENTITY.translate(20, -10));
+			assertArrayEquals(getPixels(expected), getPixels(actual));
+			assertEquals(Matrix2D.IDENTITY, actual.getTransformation());
+		}
+	}
+
+	@Test
+	public void parallelReplayingDrawsShapesTheSameAsSerialReplaying() {
+		Image recording = new Image(600, 500);
+		recording.startRecording();
+		for (int i = 0; i < 40; i++) {
+			recording.setColor(i % 2 == 0 ? Palette.ORANGE : Palette.BLUE);
+			recording.fillRectangle(i * 13, i * 11, 120, 90);
+			recording.setLineWidth(3);
+			recording.fillCircle(20 + i * 14, 30 + i * 11, 8 + i % 5);
+			recording.fillCircle(256 + i % 7, 256 - i % 5, 30 + i * 4);
+			recording.drawCircle(230 + i * 7, 240 + i * 2, 20 + i * 5);
+			recording.drawArc(500 - i * 7, 260 + i * 5, 40 + i * 3, i * 0.3, 2.5);
+			recording.setLineWidth(7);
+			recording.drawLine(i * 15, 480 - i * 11, 300 + i * 7, 20 + i * 12);
+		}
+
+		assertParallelReplayingDrawsTheSame(recording.stopRecording());
+	}
+
+	@Test
+	public void parallelReplayingDrawsTextTheSameAsSerialReplaying() {
+		Image recording = new Image(600, 500);
+		recording.startRecording();
+		for (int i = 0; i < 40; i++) {
+			recording.setColor(i % 2 == 0 ? Palette.RED : Palette.BLACK);
+			recording.setTextRenderer(i % 4 < 2 ? TextRenderer.GLYPH_ATLAS : TextRenderer.OUTLINE);
+			recording.getTextFormat().setFontSize(10 + i % 3 * 8);
+			recording.getTextFormat().setItalic(i % 5 == 0);
+			recording.drawText(20 + i * 14, 30 + i * 11, "Tile " + i);
+			recording.drawText(230 + i * 4, 500 - i * 12, "Border " + i);
+		}
+
+		assertParallelReplayingDrawsTheSame(recording.stopRecording());
+	}
+
+	private static void assertParallelReplayingDrawsTheSame(DisplayList displayList) {
+		// surefire sets the parallelism of the common pool, otherwise the display list is always replayed on a single thread
+		assertTrue(ForkJoinPool.getCommonPoolParallelism() > 1);
+
+		Image serial = new Image(600, 500);
+		serial.drawDisplayList(displayList);
+
+		displayList.setParallel(true);
+		Image parallel = new Image(600, 500);
+		parallel.drawDisplayList(displayList);
+
+		assertArrayEquals(getPixels(serial), getPixels(parallel));
+	}
+
+	private static void drawScene(Image image) {
+		image.setColor(Palette.ORANGE);
+		image.fillRectangle(10, 10, 100, 60);
+		image.setColor(Palette.BLUE);
+		image.setLineWidth(4);
+		image.drawCircle(120, 80, 30);
+		image.fillCircles(new double[] { 30, 60 }, new double[] { 120, 120 }, new double[] { 10, 15 });
+		image.drawText(20, 20, "Hi");
+		image.setPixel(0, 0, Palette.RED);
+	}
+
+	private static int[] getPixels(Image image) {
+		int[] argb = new int[image.getWidth() * image.getHeight()];
+		image.getPixels(argb, 0, 0, image.getWidth(), image.getHeight());
+		argb[0] = 0;
+		return argb;
+	}
+}
@@ -0,0 +1,57 @@
+package auto;
+
+import codedraw.Filter;
+import codedraw.Image;
+import codedraw.Palette;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FilterTest {
+	@Test
+	public void blurringUniformImageDoesNotChangeIt() {
+		for (Filter filter : new Filter[] { Filter.gaussianBlur(4.5), Filter.boxBlur(3) }) {
+			Image image = new Image(70, 50, Palette.TRANSPARENT);
+			int[] argb = new int[70 * 50];
+			Arrays.fill(argb, 0x80C86432);
+			image.setPixels(argb, 0, 0, 70, 50);
+
+			image.applyFilter(filter);
+
+			assertEquals(0x80C86432, image.getPixelARGB(0, 0));
+			assertEquals(0x80C86432, image.getPixelARGB(35, 25));
+			assertEquals(0x80C86432, image.getPixelARGB(69, 49));
+		}
+	}
+
+	@Test
+	public void boxBlurAveragesNeighbors() {
+		Image image = new Image(9, 9, Palette.BLACK);
+		image.setPixel(4, 4, 0xFFFFFFFF);
+
+		Image blurred = Image.filter(image, Filter.boxBlur(1));
+
+		assertEquals(0xFF1C1C1C, blurred.getPixelARGB(3, 3));
+		assertEquals(0xFF1C1C1C, blurred.getPixelARGB(5, 4));
+		assertEquals(0xFF000000, blurred.getPixelARGB(6, 4));
+		assertEquals(0xFFFFFFFF, image.getPixelARGB(4, 4));
+	}
+
+	@Test
+	public void kernelShiftsImage() {
+		Image image = new Image(5, 5, Palette.BLACK);
+		image.setPixel(2, 2, 0xFF102030);
+
+		image.applyFilter(Filter.kernel(3, 1, 1, 0, 0));
+
+		assertEquals(0xFF102030, image.getPixelARGB(3, 2));
+		assertEquals(0xFF000000, image.getPixelARGB(2, 2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void kernelWithWrongNumberOfWeightsShouldThrow() {
+		Filter.kernel(3, 3, 1, 2, 3);
+	}
+}
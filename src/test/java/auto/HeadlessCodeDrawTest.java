@@ -0,0 +1,78 @@
+package auto;
+
+import codedraw.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HeadlessCodeDrawTest {
+	@Test
+	public void showPassesCopyOfCanvasToCallback() {
+		List<Image> frames = new ArrayList<>();
+		HeadlessCodeDraw cd = new HeadlessCodeDraw(10, 10, frames::add);
+
+		cd.setPixel(1, 1, 0xFF112233);
+		cd.show();
+		cd.setPixel(1, 1, 0xFF445566);
+
+		assertEquals(1, frames.size());
+		assertEquals(0xFF112233, frames.get(0).getPixelARGB(1, 1));
+	}
+
+	@Test
+	public void runCallsSimulateAndDrawInTheGivenRatio() {
+		HeadlessCodeDraw cd = new HeadlessCodeDraw(10, 10);
+		int[] simulations = new int[1];
+
+		cd.run(new Animation() {
+			@Override
+			public void simulate() {
+				simulations[0]++;
+			}
+
+			@Override
+			public void draw(Image canvas) { }
+		}, 30, 30, 60);
+
+		assertEquals(30, cd.getFrameCount());
+		assertEquals(30, cd.getFrames().size());
+		assertEquals(59, simulations[0]);
+	}
+
+	@Test
+	public void simulatedEventsAreDispatchedToAnimation() {
+		HeadlessCodeDraw cd = new HeadlessCodeDraw(100, 100);
+		List<String> events = new ArrayList<>();
+
+		cd.moveMouse(20, 30);
+		cd.clickMouse(20, 30, MouseButton.RIGHT);
+		cd.pressKey(Key.A);
+		cd.pressKey(Key.A);
+		cd.pressKey(Key.B);
+
+		cd.run(new Animation() {
+			@Override
+			public void onMouseMove(MouseMoveEvent event) {
+				events.add("move " + event.getX() + " " + event.getY());
+			}
+
+			@Override
+			public void onMouseClick(MouseClickEvent event) {
+				events.add("click " + event.getMouseButton());
+			}
+
+			@Override
+			public void onKeyDown(KeyDownEvent event) {
+				events.add("down " + event.getKey());
+			}
+
+			@Override
+			public void draw(Image canvas) { }
+		}, 1);
+
+		assertEquals(List.of("move 20 30", "click RIGHT", "down A", "down B"), events);
+	}
+}
@@ -1,6 +1,7 @@
 package auto;
 
 import codedraw.Matrix2D;
+import codedraw.Point2D;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -72,4 +73,63 @@ public class Matrix2DTest {
 		assertEquals(expected, m1);
 		assertEquals(expected, m2);
 	}
+
+	@Test
+	public void transformationsMatchMatrixMultiplication() {
+		Matrix2D base = Matrix2D.fromRowMajor(
+				2, -1, 4,
+				0.5, 3, -7,
+				0.1, 0.2, 1
+		);
+		double cos = Math.cos(0.7);
+		double sin = Math.sin(0.7);
+
+		Matrix2D translation = Matrix2D.fromRowMajor(1, 0, 3, 0, 1, -4, 0, 0, 1);
+		Matrix2D rotation = Matrix2D.fromRowMajor(cos, -sin, 0, sin, cos, 0, 0, 0, 1);
+		Matrix2D scale = Matrix2D.fromRowMajor(2, 0, 0, 0, -3, 0, 0, 0, 1);
+		Matrix2D shear = Matrix2D.fromRowMajor(1, 0.3, 0, 0.6, 1, 0, 0, 0, 1);
+
+		assertTrue(base.translate(3, -4).equals(translation.multiply(base), 1e-9));
+		assertTrue(base.rotate(0.7).equals(rotation.multiply(base), 1e-9));
+		assertTrue(base.scale(2, -3).equals(scale.multiply(base), 1e-9));
+		assertTrue(base.shear(0.3, 0.6).equals(shear.multiply(base), 1e-9));
+		assertTrue(base.rotateAt(5, 6, 0.7).equals(base.translate(-5, -6).rotate(0.7).translate(5, 6), 1e-9));
+		assertTrue(base.scaleAt(5, 6, 2, -3).equals(base.translate(-5, -6).scale(2, -3).translate(5, 6), 1e-9));
+		assertTrue(base.shearAt(5, 6, 0.3, 0.6).equals(base.translate(-5, -6).shear(0.3, 0.6).translate(5, 6), 1e-9));
+	}
+
+	@Test
+	public void toStringListsRows() {
+		assertEquals("[[1.0, 0.0, 0.0], [0.0, 1.0, 0.0], [0.0, 0.0, 1.0]]", Matrix2D.IDENTITY.toString());
+	}
+
+	@Test
+	public void transformMatchesMultiplyForEachPoint() {
+		Matrix2D m = Matrix2D.IDENTITY.rotateAt(10, 20, 0.4).scale(2, 3).translate(-5, 7);
+		double[] points = { 0, 0, 1, 2, -3, 4, 100, -50 };
+		double[] xs = { 0, 1, -3, 100 };
+		double[] ys = { 0, 2, 4, -50 };
+
+		double[] interleaved = new double[points.length + 2];
+		m.transform(points, 0, interleaved, 2, 4);
+		m.transform(xs, ys, 0, xs, ys, 0, 4);
+
+		for (int i = 0; i < 4; i++) {
+			Point2D expected = m.multiply(points[2 * i], points[2 * i + 1]);
+			assertEquals(expected.getX(), interleaved[2 + 2 * i], 1e-9);
+			assertEquals(expected.getY(), interleaved[3 + 2 * i], 1e-9);
+			assertEquals(expected.getX(), xs[i], 1e-9);
+			assertEquals(expected.getY(), ys[i], 1e-9);
+		}
+	}
+
+	@Test
+	public void transformHandlesOverlappingSections() {
+		Matrix2D m = Matrix2D.IDENTITY.translate(1, 10);
+		double[] points = { 1, 2, 3, 4, 5, 6, 0, 0 };
+
+		m.transform(points, 0, points, 2, 3);
+
+		assertArrayEquals(new double[] { 1, 2, 2, 12, 4, 14, 6, 16 }, points, 0);
+	}
 }
@@ -0,0 +1,88 @@
+package auto;
+
+import codedraw.Image;
+import codedraw.Palette;
+import codedraw.PixelView;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PixelTest {
+	@Test
+	public void setPixelsThenGetPixelsReturnsSameColors() {
+		Image image = new Image(4, 3, Palette.TRANSPARENT);
+		int[] argb = new int[2 * 2];
+		for (int i = 0; i < argb.length; i++) {
+			argb[i] = 0xFF000000 | i * 0x10203;
+		}
+
+		image.setPixels(argb, 1, 1, 2, 2);
+
+		int[] result = new int[argb.length];
+		image.getPixels(result, 1, 1, 2, 2);
+		assertArrayEquals(argb, result);
+		assertEquals(argb[3], image.getPixel(2, 2).getRGB());
+		assertEquals(0, image.getPixel(0, 0).getRGB());
+	}
+
+	@Test
+	public void editPixelsWritesToImage() {
+		Image image = new Image(5, 5);
+
+		image.editPixels(pixels -> pixels.setPixel(3, 4, 0xFF112233));
+
+		assertEquals(0xFF112233, image.getPixel(3, 4).getRGB());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void pixelViewCannotBeUsedAfterEditPixels() {
+		Image image = new Image(5, 5);
+		PixelView[] escaped = new PixelView[1];
+
+		image.editPixels(pixels -> escaped[0] = pixels);
+
+		escaped[0].getPixel(0, 0);
+	}
+
+	@Test
+	public void forEachPixelThenMapPixelsChangesEveryPixel() {
+		Image image = new Image(40, 30, Palette.TRANSPARENT);
+
+		image.forEachPixel((x, y) -> 0xFF000000 | (x << 8) | y);
+		image.mapPixels((x, y, argb) -> argb ^ 0x00FF0000);
+
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				assertEquals(0xFFFF0000 | (x << 8) | y, image.getPixelARGB(x, y));
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getPixelsOutsideOfImageShouldThrow() {
+		Image image = new Image(5, 5);
+		image.getPixels(new int[25], 1, 0, 5, 5);
+	}
+
+	@Test
+	public void clearWithARGBFillsWholeImage() {
+		Image image = new Image(3, 3);
+
+		image.clear(0xFF102030);
+		image.setPixel(1, 1, 0x80FFFFFF);
+
+		assertEquals(0xFF102030, image.getPixelARGB(0, 0));
+		assertEquals(0xFF102030, image.getPixelARGB(2, 2));
+		assertEquals(0x80FFFFFF, image.getPixelARGB(1, 1));
+	}
+
+	@Test
+	public void setColorARGBIsReturnedByGetColor() {
+		Image image = new Image(3, 3);
+
+		image.setColorARGB(0x7F010203);
+
+		assertEquals(0x7F010203, image.getColorARGB());
+		assertEquals(0x7F010203, image.getColor().getRGB());
+	}
+}
@@ -0,0 +1,108 @@
+package auto;
+
+import codedraw.Image;
+import codedraw.Palette;
+import codedraw.TextFormat;
+import codedraw.TextMetrics;
+import codedraw.TextOrigin;
+import codedraw.TextRenderer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextFormatTest {
+	@Test
+	public void changingTextFormatAfterDrawingChangesNextDrawnText() {
+		TextFormat format = new TextFormat().setFontSize(10);
+
+		Image small = new Image(200, 100);
+		small.setTextFormat(format);
+		small.drawText(0, 0, "HHHH");
+
+		format.setFontSize(40);
+
+		Image large = new Image(200, 100);
+		large.setTextFormat(format);
+		large.drawText(0, 0, "HHHH");
+
+		assertTrue(countDrawnPixels(large) > 4 * countDrawnPixels(small));
+	}
+
+	@Test
+	public void availableFontNamesAreAvailable() {
+		String[] fontNames = TextFormat.getAllAvailableFontNames();
+
+		assertTrue(fontNames.length > 0);
+		for (String fontName : fontNames) {
+			assertTrue(TextFormat.isFontNameAvailable(fontName));
+		}
+		assertFalse(TextFormat.isFontNameAvailable("This Font Does Not Exist"));
+		assertEquals("Dialog", new TextFormat().setFontName("This Font Does Not Exist", "Dialog").getFontName());
+	}
+
+	@Test
+	public void glyphAtlasAlignsTextLikeOutlines() {
+		for (TextOrigin origin : TextOrigin.values()) {
+			Image outline = new Image(300, 200);
+			outline.getTextFormat().setTextOrigin(origin);
+			outline.drawText(150, 100, "Hello World\nline 2");
+
+			Image atlas = new Image(300, 200);
+			atlas.setTextRenderer(TextRenderer.GLYPH_ATLAS);
+			atlas.getTextFormat().setTextOrigin(origin);
+			atlas.drawText(150, 100, "Hello World\nline 2");
+
+			int[] expected = drawnBounds(outline);
+			int[] actual = drawnBounds(atlas);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(origin.toString(), expected[i], actual[i], 2);
+			}
+		}
+	}
+
+	@Test
+	public void measuredTextContainsDrawnText() {
+		for (TextOrigin origin : TextOrigin.values()) {
+			Image image = new Image(300, 200);
+			image.getTextFormat().setTextOrigin(origin);
+			image.drawText(150, 100, "Hello World\nline 2");
+
+			TextMetrics metrics = image.getTextFormat().measureText("Hello World\nline 2");
+			int[] drawn = drawnBounds(image);
+
+			assertEquals(2, metrics.getLineCount());
+			assertEquals(2 * metrics.getLineHeight(), metrics.getHeight(), 0);
+			assertEquals(metrics.getWidth(), Math.max(metrics.getLineWidth(0), metrics.getLineWidth(1)), 0);
+			assertTrue(origin.toString(), 150 + metrics.getX() - 1 <= drawn[0] && drawn[2] <= 150 + metrics.getX() + metrics.getWidth() + 1);
+			assertTrue(origin.toString(), 100 + metrics.getY() - 1 <= drawn[1] && drawn[3] <= 100 + metrics.getY() + metrics.getHeight() + 1);
+			assertEquals(metrics.toString(), image.measureText("Hello World\nline 2").toString());
+		}
+	}
+
+	private static int[] drawnBounds(Image image) {
+		int[] bounds = { Integer.MAX_VALUE, Integer.MAX_VALUE, -1, -1 };
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				if (image.getPixelARGB(x, y) != Palette.WHITE.getRGB()) {
+					bounds[0] = Math.min(bounds[0], x);
+					bounds[1] = Math.min(bounds[1], y);
+					bounds[2] = Math.max(bounds[2], x);
+					bounds[3] = Math.max(bounds[3], y);
+				}
+			}
+		}
+		return bounds;
+	}
+
+	private static int countDrawnPixels(Image image) {
+		int count = 0;
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				if (image.getPixelARGB(x, y) != Palette.WHITE.getRGB()) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+}